@@ -1,9 +1,13 @@
 package org.example.albumes.controllers;
 
 import org.example.albumes.dto.AlbumCreateDto;
+import org.example.albumes.dto.AlbumImportDto;
 import org.example.albumes.dto.AlbumResponseDto;
 import org.example.albumes.dto.AlbumUpdateDto;
+import org.example.albumes.exceptions.AlbumBadRequestException;
 import org.example.albumes.services.AlbumService;
+import org.example.config.bulkhead.Bulkheads;
+import org.example.utils.pagination.KeysetCursor;
 import org.example.utils.pagination.PageResponse;
 import org.example.utils.pagination.PaginationLinksUtils;
 import io.swagger.v3.oas.annotations.Operation;
@@ -20,9 +24,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -30,6 +36,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -41,16 +48,19 @@ import java.util.Optional;
 public class AlbumRestController {
     private final AlbumService albumService;
     private final PaginationLinksUtils paginationLinksUtils;
+    private final Bulkheads bulkheads;
 
     @Operation(summary = "Obtiene todos los albumes", description = "Obtiene una lista de albumes")
     @Parameters({
             @Parameter(name = "titulo", description = "Título del álbum", example = ""),
             @Parameter(name = "genero", description = "Género del álbum", example = ""),
+            @Parameter(name = "artista", description = "Nombre del artista", example = ""),
             @Parameter(name = "isDeleted", description = "Si está borrado o no", example = "false"),
             @Parameter(name = "page", description = "Número de página", example = "0"),
             @Parameter(name = "size", description = "Tamaño de la página", example = "10"),
             @Parameter(name = "sortBy", description = "Campo de ordenación", example = "id"),
-            @Parameter(name = "direction", description = "Dirección de ordenación", example = "asc")
+            @Parameter(name = "direction", description = "Dirección de ordenación", example = "asc"),
+            @Parameter(name = "after", description = "Cursor opaco de la página siguiente, vacío para la primera (activa el modo cursor)", example = "")
     })
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Página de albumes"),
@@ -59,22 +69,54 @@ public class AlbumRestController {
     public ResponseEntity<PageResponse<AlbumResponseDto>> getAll(
             @RequestParam(required = false) Optional<String> titulo,
             @RequestParam(required = false) Optional<String> genero,
+            @RequestParam(required = false) Optional<String> artista,
             @RequestParam(required = false) Optional<Boolean> isDeleted,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
             @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) Optional<String> after,
             HttpServletRequest request) {
-        log.info("Buscando albumes por titulo={}, genero={}, isDeleted={}", titulo, genero, isDeleted);
+        log.info("Buscando albumes por titulo={}, genero={}, artista={}, isDeleted={}", titulo, genero, artista, isDeleted);
         Sort sort = direction.equalsIgnoreCase(Sort.Direction.ASC.name()) ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
+        if (after.isPresent()) {
+            return getAllAfter(titulo, genero, artista, isDeleted, after.filter(StringUtils::hasText), size, sortBy, sort, request);
+        }
         Pageable pageable = PageRequest.of(page, size, sort);
         UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString(request.getRequestURL().toString());
-        Page<AlbumResponseDto> pageResult = albumService.findAll(titulo, genero, isDeleted, pageable);
+        Page<AlbumResponseDto> pageResult = bulkheads.call(Bulkheads.ALBUMES_LECTURA,
+                () -> albumService.findAll(titulo, genero, artista, isDeleted, pageable));
         return ResponseEntity.ok()
                 .header("link", paginationLinksUtils.createLinkHeader(pageResult, uriBuilder))
                 .body(PageResponse.of(pageResult, sortBy, direction));
     }
 
+    private ResponseEntity<PageResponse<AlbumResponseDto>> getAllAfter(
+            Optional<String> titulo, Optional<String> genero, Optional<String> artista, Optional<Boolean> isDeleted,
+            Optional<String> after, int size, String sortBy, Sort sort, HttpServletRequest request) {
+        log.info("Buscando albumes en modo cursor after={}", after);
+        String direction = sort.getOrderFor(sortBy).getDirection().name().toLowerCase();
+        Optional<KeysetCursor> cursor;
+        try {
+            cursor = after.map(KeysetCursor::decode);
+        } catch (IllegalArgumentException e) {
+            throw new AlbumBadRequestException(e.getMessage());
+        }
+        Window<AlbumResponseDto> window = bulkheads.call(Bulkheads.ALBUMES_LECTURA,
+                () -> albumService.findAll(titulo, genero, artista, isDeleted, cursor, sort, size));
+        String nextCursor = KeysetCursor.next(window, sortBy, direction).map(KeysetCursor::encode).orElse(null);
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder.fromUriString(request.getRequestURL().toString())
+                .queryParamIfPresent("titulo", titulo)
+                .queryParamIfPresent("genero", genero)
+                .queryParamIfPresent("artista", artista)
+                .queryParamIfPresent("isDeleted", isDeleted)
+                .queryParam("sortBy", sortBy)
+                .queryParam("direction", direction);
+        return ResponseEntity.ok()
+                .header("link", paginationLinksUtils.createLinkHeader(nextCursor, size, cursor.isEmpty(), uriBuilder))
+                .body(PageResponse.of(window, size, cursor.isEmpty(), sortBy, direction, nextCursor));
+    }
+
     @Operation(summary = "Obtiene un álbum por su id", description = "Obtiene un álbum por su id")
     @Parameters({
             @Parameter(name = "id", description = "Identificador del álbum", example = "1", required = true)
@@ -86,7 +128,7 @@ public class AlbumRestController {
     @GetMapping("/{id}")
     public ResponseEntity<AlbumResponseDto> getById(@PathVariable Long id) {
         log.info("Buscando album por id={}", id);
-        return ResponseEntity.ok(albumService.findById(id));
+        return ResponseEntity.ok(bulkheads.call(Bulkheads.ALBUMES_LECTURA, () -> albumService.findById(id)));
     }
 
     @Operation(summary = "Crea un álbum", description = "Crea un álbum")
@@ -98,7 +140,20 @@ public class AlbumRestController {
     @PostMapping()
     public ResponseEntity<AlbumResponseDto> create(@Valid @RequestBody AlbumCreateDto albumCreateDto) {
         log.info("Creando album : {}", albumCreateDto);
-        var saved = albumService.save(albumCreateDto);
+        var saved = bulkheads.call(Bulkheads.ALBUMES_ESCRITURA, () -> albumService.save(albumCreateDto));
+        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+    }
+
+    @Operation(summary = "Importa álbumes", description = "Crea varios álbumes en una sola transacción")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Álbumes a crear (máximo 1000)", required = true)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Álbumes creados"),
+            @ApiResponse(responseCode = "400", description = "Algún álbum no es válido; no se crea ninguno"),
+    })
+    @PostMapping("/importar")
+    public ResponseEntity<List<AlbumResponseDto>> importar(@Valid @RequestBody AlbumImportDto albumImportDto) {
+        log.info("Importando {} albumes", albumImportDto.getAlbumes().size());
+        var saved = bulkheads.call(Bulkheads.ALBUMES_ESCRITURA, () -> albumService.saveAll(albumImportDto.getAlbumes()));
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
 
@@ -115,7 +170,7 @@ public class AlbumRestController {
     @PutMapping("/{id}")
     public ResponseEntity<AlbumResponseDto> update(@PathVariable Long id, @Valid @RequestBody AlbumUpdateDto albumUpdateDto) {
         log.info("Actualizando album id={} con album={}", id, albumUpdateDto);
-        return ResponseEntity.ok(albumService.update(id, albumUpdateDto));
+        return ResponseEntity.ok(bulkheads.call(Bulkheads.ALBUMES_ESCRITURA, () -> albumService.update(id, albumUpdateDto)));
     }
 
     @Operation(summary = "Actualiza parcialmente un álbum", description = "Actualiza parcialmente un álbum")
@@ -131,7 +186,7 @@ public class AlbumRestController {
     @PatchMapping("/{id}")
     public ResponseEntity<AlbumResponseDto> updatePartial(@PathVariable Long id, @Valid @RequestBody AlbumUpdateDto albumUpdateDto) {
         log.info("Actualizando parcialmente album con id={} con album={}",id, albumUpdateDto);
-        return ResponseEntity.ok(albumService.update(id, albumUpdateDto));
+        return ResponseEntity.ok(bulkheads.call(Bulkheads.ALBUMES_ESCRITURA, () -> albumService.update(id, albumUpdateDto)));
     }
 
     @Operation(summary = "Borra un álbum", description = "Borra un álbum")
@@ -145,7 +200,7 @@ public class AlbumRestController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         log.info("Borrando album por id: {}", id);
-        albumService.deleteById(id);
+        bulkheads.run(Bulkheads.ALBUMES_ESCRITURA, () -> albumService.deleteById(id));
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
 
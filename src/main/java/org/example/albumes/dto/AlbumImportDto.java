@@ -0,0 +1,24 @@
+package org.example.albumes.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Álbumes a crear de una vez")
+public class AlbumImportDto {
+    @NotEmpty(message = "La lista de álbumes no puede estar vacía")
+    @Size(max = 1000, message = "No se pueden importar más de 1000 álbumes a la vez")
+    @Schema(description = "Álbumes a crear")
+    private List<@Valid AlbumCreateDto> albumes;
+}
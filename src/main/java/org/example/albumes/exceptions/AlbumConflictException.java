@@ -0,0 +1,11 @@
+package org.example.albumes.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class AlbumConflictException extends AlbumException {
+    public AlbumConflictException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
@@ -38,6 +38,7 @@ public class AlbumMapper {
                 .precio(albumUpdateDto.getPrecio() != null ? albumUpdateDto.getPrecio() : album.getPrecio())
                 .createdAt(album.getCreatedAt())
                 .uuid(album.getUuid())
+                .version(album.getVersion())
                 .build();
     }
 
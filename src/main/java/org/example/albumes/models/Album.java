@@ -20,7 +20,9 @@ import java.util.UUID;
 @Schema(name = "Albumes")
 public class Album {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Con secuencia Hibernate puede agrupar los INSERT en lotes; cada llamada reserva allocationSize ids
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "albumes_seq")
+    @SequenceGenerator(name = "albumes_seq", sequenceName = "ALBUMES_SEQ", allocationSize = 50)
     @Schema(description = "Identificador del álbum", example = "1")
     private Long id;
 
@@ -67,6 +69,13 @@ public class Album {
     @Schema(description = "Si el álbum está eliminado", example = "false")
     private Boolean isDeleted = false;
 
+    // Sube con cada UPDATE: dos escrituras concurrentes del mismo álbum no se pisan y las notificaciones
+    // lo llevan para que los clientes las ordenen y descarten repetidas
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    @Schema(description = "Versión del álbum", example = "0")
+    private Long version;
+
     @ManyToOne
     @JoinColumn(name = "artista_id")
     @Schema(description = "Artista del álbum", example = "Rosalía")
@@ -1,6 +1,8 @@
 package org.example.albumes.repositories;
 
+import org.example.albumes.dto.AlbumResponseDto;
 import org.example.albumes.models.Album;
+import org.example.albumes.search.AlbumSearchEntry;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -14,7 +16,9 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface AlbumRepository extends JpaRepository<Album, Long>, JpaSpecificationExecutor<Album> {
+public interface AlbumRepository extends JpaRepository<Album, Long>, JpaSpecificationExecutor<Album>, AlbumRepositoryCustom {
+    String RESPONSE_SELECT = "SELECT new org.example.albumes.dto.AlbumResponseDto(a.id, a.titulo, a.genero, " +
+            "a.fechaLanzamiento, ar.nombre, a.precio, a.createdAt, a.updatedAt, a.uuid) FROM Album a LEFT JOIN a.artista ar ";
 
     Optional<Album> findByUuid(UUID uuid);
     boolean existsByUuid(UUID uuid);
@@ -32,6 +36,20 @@ public interface AlbumRepository extends JpaRepository<Album, Long>, JpaSpecific
     @Query("SELECT a FROM Album a WHERE a.artista.usuario.id = :usuarioId")
     List<Album> findByUsuarioId(Long usuarioId);
 
+    @Query(value = RESPONSE_SELECT + "WHERE ar.usuario.id = :usuarioId",
+            countQuery = "SELECT COUNT(a) FROM Album a WHERE a.artista.usuario.id = :usuarioId")
+    Page<AlbumResponseDto> findResponseByUsuarioId(Long usuarioId, Pageable pageable);
+
+    @Query(RESPONSE_SELECT + "WHERE a.id = :id")
+    Optional<AlbumResponseDto> findResponseById(Long id);
+
+    @Query(RESPONSE_SELECT + "WHERE a.uuid = :uuid")
+    Optional<AlbumResponseDto> findResponseByUuid(UUID uuid);
+
     @Query("SELECT CASE WHEN COUNT(a) > 0 THEN true ELSE false END FROM Album a WHERE a.artista.usuario.id = :id")
     Boolean existsByUsuarioId(Long id);
+
+    @Query("SELECT new org.example.albumes.search.AlbumSearchEntry(a.id, a.titulo, a.genero, ar.id, ar.nombre) " +
+            "FROM Album a LEFT JOIN a.artista ar")
+    List<AlbumSearchEntry> findAllSearchEntries();
 }
\ No newline at end of file
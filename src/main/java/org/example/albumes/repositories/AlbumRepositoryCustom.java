@@ -0,0 +1,16 @@
+package org.example.albumes.repositories;
+
+import org.example.albumes.dto.AlbumResponseDto;
+import org.example.albumes.models.Album;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface AlbumRepositoryCustom {
+    Page<AlbumResponseDto> findAllResponse(Specification<Album> spec, Pageable pageable);
+
+    Window<AlbumResponseDto> findAllResponse(Specification<Album> spec, KeysetScrollPosition position, Sort sort, int limit);
+}
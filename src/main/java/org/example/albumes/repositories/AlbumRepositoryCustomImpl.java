@@ -0,0 +1,115 @@
+package org.example.albumes.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.example.albumes.dto.AlbumResponseDto;
+import org.example.albumes.models.Album;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.KeysetScrollSpecification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Lecturas de listados que construyen directamente AlbumResponseDto en una única consulta con JOIN,
+// sin hidratar entidades Album/Artista en el contexto de persistencia
+public class AlbumRepositoryCustomImpl implements AlbumRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<AlbumResponseDto> findAllResponse(Specification<Album> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AlbumResponseDto> query = cb.createQuery(AlbumResponseDto.class);
+        Root<Album> root = selectResponse(query, cb);
+        where(query, spec.toPredicate(root, query, cb));
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        var typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public Window<AlbumResponseDto> findAllResponse(Specification<Album> spec, KeysetScrollPosition position, Sort sort, int limit) {
+        var entityInformation = JpaEntityInformationSupport.getEntityInformation(Album.class, entityManager);
+        Sort sortToUse = KeysetScrollSpecification.createSort(position, sort, entityInformation);
+        var keyset = new KeysetScrollSpecification<Album>(position, sortToUse, entityInformation);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AlbumResponseDto> query = cb.createQuery(AlbumResponseDto.class);
+        Root<Album> root = selectResponse(query, cb);
+        where(query, spec.toPredicate(root, query, cb), keyset.createPredicate(root, cb));
+        query.orderBy(QueryUtils.toOrders(sortToUse, root, cb));
+
+        // Se pide un elemento de más para saber si hay página siguiente sin hacer COUNT
+        List<AlbumResponseDto> content = entityManager.createQuery(query)
+                .setMaxResults(limit + 1)
+                .getResultList();
+        boolean hasNext = content.size() > limit;
+        List<AlbumResponseDto> window = hasNext ? content.subList(0, limit) : content;
+        return Window.from(window, i -> ScrollPosition.forward(keys(window.get(i), sortToUse)), hasNext);
+    }
+
+    private Root<Album> selectResponse(CriteriaQuery<AlbumResponseDto> query, CriteriaBuilder cb) {
+        Root<Album> root = query.from(Album.class);
+        var artista = root.join("artista", JoinType.LEFT);
+        query.select(cb.construct(AlbumResponseDto.class,
+                root.get("id"),
+                root.get("titulo"),
+                root.get("genero"),
+                root.get("fechaLanzamiento"),
+                artista.get("nombre"),
+                root.get("precio"),
+                root.get("createdAt"),
+                root.get("updatedAt"),
+                root.get("uuid")
+        ));
+        return root;
+    }
+
+    private long count(Specification<Album> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Album> root = query.from(Album.class);
+        query.select(cb.count(root));
+        where(query, spec.toPredicate(root, query, cb));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static void where(CriteriaQuery<?> query, Predicate... predicates) {
+        var noNulos = Arrays.stream(predicates).filter(Objects::nonNull).toArray(Predicate[]::new);
+        if (noNulos.length > 0) {
+            query.where(noNulos);
+        }
+    }
+
+    private static Map<String, Object> keys(AlbumResponseDto dto, Sort sort) {
+        var wrapper = new BeanWrapperImpl(dto);
+        Map<String, Object> keys = new HashMap<>();
+        sort.forEach(order -> keys.put(order.getProperty(), wrapper.getPropertyValue(order.getProperty())));
+        return keys;
+    }
+}
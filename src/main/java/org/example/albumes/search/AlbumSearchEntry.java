@@ -0,0 +1,10 @@
+package org.example.albumes.search;
+
+public record AlbumSearchEntry(
+        Long id,
+        String titulo,
+        String genero,
+        Long artistaId,
+        String nombreArtista
+) {
+}
@@ -0,0 +1,214 @@
+package org.example.albumes.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.albumes.models.Album;
+import org.example.albumes.repositories.AlbumRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Índice invertido de trigramas en memoria para las búsquedas por subcadena (LIKE '%x%')
+// sobre el título, el género y el nombre del artista. Si no puede resolver la búsqueda
+// (menos de 3 caracteres o demasiados candidatos) devuelve vacío y se consulta la base de datos.
+// Los cambios hechos dentro de una transacción se aplican al confirmarla: si se deshace, el índice no debe
+// quedarse con ids que no existen ni perder los que siguen existiendo.
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class AlbumSearchIndex {
+    public enum Campo {TITULO, GENERO, ARTISTA}
+
+    private static final int TRIGRAMA = 3;
+
+    private final AlbumRepository albumRepository;
+
+    @Value("${albumes.search.max-candidatos:1000}")
+    private int maxCandidatos;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Campo, Map<String, Set<Long>>> trigramas = new EnumMap<>(Campo.class);
+    private final Map<Long, AlbumSearchEntry> entradas = new HashMap<>();
+    private final Map<Long, Set<Long>> albumesPorArtista = new HashMap<>();
+    private volatile boolean construido = false;
+
+    {
+        for (Campo campo : Campo.values()) {
+            trigramas.put(campo, new HashMap<>());
+        }
+    }
+
+    // Se bloquea antes de leer la tabla: un cambio confirmado durante la lectura espera a que termine y se aplica
+    // después, en lugar de perderse al sustituir el contenido del índice
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        int total;
+        lock.writeLock().lock();
+        try {
+            var todas = albumRepository.findAllSearchEntries();
+            trigramas.values().forEach(Map::clear);
+            entradas.clear();
+            albumesPorArtista.clear();
+            todas.forEach(this::agregar);
+            total = todas.size();
+            construido = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de búsqueda de álbumes construido con {} álbumes", total);
+    }
+
+    public void indexar(Album album) {
+        var artista = album.getArtista();
+        var entrada = new AlbumSearchEntry(
+                album.getId(),
+                album.getTitulo(),
+                album.getGenero(),
+                artista != null ? artista.getId() : null,
+                artista != null ? artista.getNombre() : null
+        );
+        alConfirmar(() -> {
+            quitar(entrada.id());
+            agregar(entrada);
+        });
+    }
+
+    public void eliminar(Long id) {
+        alConfirmar(() -> quitar(id));
+    }
+
+    public void renombrarArtista(Long artistaId, String nombre) {
+        alConfirmar(() -> {
+            for (Long id : Set.copyOf(albumesPorArtista.getOrDefault(artistaId, Set.of()))) {
+                var entrada = quitar(id);
+                agregar(new AlbumSearchEntry(id, entrada.titulo(), entrada.genero(), artistaId, nombre));
+            }
+        });
+    }
+
+    // Igual que el aviso al relay del outbox: tras el commit si hay transacción, si no inmediatamente
+    private void alConfirmar(Runnable cambio) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicar(cambio);
+                }
+            });
+        } else {
+            aplicar(cambio);
+        }
+    }
+
+    private void aplicar(Runnable cambio) {
+        lock.writeLock().lock();
+        try {
+            cambio.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<Set<Long>> buscar(Campo campo, String texto) {
+        String normalizado = normalizar(texto);
+        if (!construido || normalizado.length() < TRIGRAMA) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            var indice = trigramas.get(campo);
+            // Se intersecan las listas de ids empezando por la más pequeña
+            List<Set<Long>> listas = trigramas(normalizado).stream()
+                    .map(trigrama -> indice.getOrDefault(trigrama, Set.of()))
+                    .sorted(Comparator.comparingInt(Set::size))
+                    .toList();
+            Set<Long> candidatos = new HashSet<>(listas.get(0));
+            for (int i = 1; i < listas.size() && !candidatos.isEmpty(); i++) {
+                candidatos.retainAll(listas.get(i));
+            }
+            if (candidatos.size() > maxCandidatos) {
+                return Optional.empty();
+            }
+            // Los trigramas pueden dar falsos positivos, se comprueba la subcadena sobre el valor guardado
+            candidatos.removeIf(id -> !normalizar(valor(entradas.get(id), campo)).contains(normalizado));
+            return Optional.of(candidatos);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void agregar(AlbumSearchEntry entrada) {
+        entradas.put(entrada.id(), entrada);
+        if (entrada.artistaId() != null) {
+            albumesPorArtista.computeIfAbsent(entrada.artistaId(), k -> new HashSet<>()).add(entrada.id());
+        }
+        for (Campo campo : Campo.values()) {
+            var indice = trigramas.get(campo);
+            for (String trigrama : trigramas(normalizar(valor(entrada, campo)))) {
+                indice.computeIfAbsent(trigrama, k -> new HashSet<>()).add(entrada.id());
+            }
+        }
+    }
+
+    private AlbumSearchEntry quitar(Long id) {
+        var entrada = entradas.remove(id);
+        if (entrada == null) {
+            return null;
+        }
+        if (entrada.artistaId() != null) {
+            var ids = albumesPorArtista.get(entrada.artistaId());
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                albumesPorArtista.remove(entrada.artistaId());
+            }
+        }
+        for (Campo campo : Campo.values()) {
+            var indice = trigramas.get(campo);
+            for (String trigrama : trigramas(normalizar(valor(entrada, campo)))) {
+                var ids = indice.get(trigrama);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        indice.remove(trigrama);
+                    }
+                }
+            }
+        }
+        return entrada;
+    }
+
+    private static String valor(AlbumSearchEntry entrada, Campo campo) {
+        return switch (campo) {
+            case TITULO -> entrada.titulo();
+            case GENERO -> entrada.genero();
+            case ARTISTA -> entrada.nombreArtista();
+        };
+    }
+
+    private static String normalizar(String texto) {
+        return texto == null ? "" : texto.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> trigramas(String texto) {
+        Set<String> resultado = new HashSet<>();
+        for (int i = 0; i + TRIGRAMA <= texto.length(); i++) {
+            resultado.add(texto.substring(i, i + TRIGRAMA));
+        }
+        return resultado;
+    }
+}
@@ -3,13 +3,20 @@ package org.example.albumes.services;
 import org.example.albumes.dto.AlbumCreateDto;
 import org.example.albumes.dto.AlbumResponseDto;
 import org.example.albumes.dto.AlbumUpdateDto;
+import org.example.utils.pagination.KeysetCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface AlbumService {
-    Page<AlbumResponseDto> findAll(Optional<String> titulo, Optional<String> genero, Optional<Boolean> isDeleted, Pageable pageable);
+    Page<AlbumResponseDto> findAll(Optional<String> titulo, Optional<String> genero, Optional<String> artista,
+                                   Optional<Boolean> isDeleted, Pageable pageable);
+    Window<AlbumResponseDto> findAll(Optional<String> titulo, Optional<String> genero, Optional<String> artista,
+                                     Optional<Boolean> isDeleted, Optional<KeysetCursor> after, Sort sort, int size);
 
     AlbumResponseDto findById(Long id);
 
@@ -20,6 +27,7 @@ public interface AlbumService {
 
     AlbumResponseDto save(AlbumCreateDto albumCreateDto);
     AlbumResponseDto save(AlbumCreateDto albumCreateDto, Long usuarioId);
+    List<AlbumResponseDto> saveAll(List<AlbumCreateDto> albumCreateDtos);
 
     AlbumResponseDto update(Long id, AlbumUpdateDto albumUpdateDto);
     AlbumResponseDto update(Long id, AlbumUpdateDto albumUpdateDto, Long usuarioId);
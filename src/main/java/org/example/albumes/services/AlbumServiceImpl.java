@@ -1,7 +1,5 @@
 package org.example.albumes.services;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.albumes.dto.AlbumCreateDto;
@@ -9,87 +7,150 @@ import org.example.albumes.dto.AlbumResponseDto;
 import org.example.albumes.dto.AlbumUpdateDto;
 import org.example.albumes.exceptions.AlbumBadRequestException;
 import org.example.albumes.exceptions.AlbumBadUuidException;
+import org.example.albumes.exceptions.AlbumConflictException;
 import org.example.albumes.exceptions.AlbumNotFoundException;
 import org.example.albumes.mappers.AlbumMapper;
 import org.example.albumes.models.Album;
 import org.example.albumes.repositories.AlbumRepository;
+import org.example.albumes.search.AlbumSearchIndex;
 import org.example.artistas.models.Artista;
 import org.example.artistas.repositories.ArtistaRepository;
-import org.example.config.websockets.WebSocketConfig;
-import org.example.config.websockets.WebSocketHandler;
-import org.example.websockets.notifications.dto.AlbumNotificationResponse;
+import org.example.utils.pagination.KeysetCursor;
 import org.example.websockets.notifications.mappers.AlbumNotificationMapper;
 import org.example.websockets.notifications.models.Notificacion;
-import org.springframework.beans.factory.InitializingBean;
+import org.example.websockets.notifications.repositories.AlbumOutboxRepository;
+import org.example.websockets.notifications.services.AlbumOutboxRelay;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import jakarta.transaction.Transactional;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 
 @CacheConfig(cacheNames = {"albumes"})
 @Slf4j
 @RequiredArgsConstructor
 @Service
-public class AlbumServiceImpl implements AlbumService, InitializingBean {
+public class AlbumServiceImpl implements AlbumService {
+    // Campos no nulos por los que se puede ordenar en modo cursor y cómo reconstruir su valor
+    private static final Map<String, Function<String, Object>> KEYSET_SORT_FIELDS = Map.of(
+            "id", Long::valueOf,
+            "titulo", value -> value,
+            "genero", value -> value,
+            "precio", Double::valueOf,
+            "fechaLanzamiento", LocalDate::parse,
+            "createdAt", LocalDateTime::parse,
+            "updatedAt", LocalDateTime::parse
+    );
+
     private final AlbumRepository albumRepository;
     private final AlbumMapper albumMapper;
     private final ArtistaRepository artistaRepository;
+    private final AlbumSearchIndex albumSearchIndex;
 
-    private final WebSocketConfig webSocketConfig;
-    private final ObjectMapper objectMapper;
     private final AlbumNotificationMapper albumNotificationMapper;
-    private WebSocketHandler webSocketService;
+    private final AlbumOutboxRepository albumOutboxRepository;
+    private final AlbumOutboxRelay albumOutboxRelay;
+    private final CacheManager cacheManager;
 
-    public void afterPropertiesSet() {
-        this.webSocketService = this.webSocketConfig.webSocketAlbumesHandler();
+    @Override
+    public Page<AlbumResponseDto> findAll(Optional<String> titulo, Optional<String> genero, Optional<String> artista,
+                                          Optional<Boolean> isDeleted, Pageable pageable) {
+        return albumRepository.findAllResponse(criterio(titulo, genero, artista, isDeleted), pageable);
     }
 
-    public void setWebSocketService(WebSocketHandler webSocketHandler) {
-        this.webSocketService = webSocketHandler;
+    @Override
+    public Window<AlbumResponseDto> findAll(Optional<String> titulo, Optional<String> genero, Optional<String> artista,
+                                            Optional<Boolean> isDeleted, Optional<KeysetCursor> after, Sort sort, int size) {
+        sort.forEach(order -> {
+            if (!KEYSET_SORT_FIELDS.containsKey(order.getProperty())) {
+                throw new AlbumBadRequestException("No se puede paginar por cursor ordenando por " + order.getProperty());
+            }
+        });
+        KeysetScrollPosition position = after.map(cursor -> toScrollPosition(cursor, sort))
+                .orElseGet(ScrollPosition::keyset);
+        return albumRepository.findAllResponse(criterio(titulo, genero, artista, isDeleted), position, sort, size);
     }
 
-    @Override
-    public Page<AlbumResponseDto> findAll(Optional<String> titulo, Optional<String> genero, Optional<Boolean> isDeleted, Pageable pageable) {
-        Specification<Album> specTitulo = (root, query, criteriaBuilder) ->
-                titulo.map(t -> criteriaBuilder.like(criteriaBuilder.lower(root.get("titulo")), "%" + t.toLowerCase() + "%"))
-                        .orElseGet(() -> criteriaBuilder.isTrue(criteriaBuilder.literal(true)));
+    private KeysetScrollPosition toScrollPosition(KeysetCursor cursor, Sort sort) {
+        var order = sort.iterator().next();
+        if (!order.getProperty().equals(cursor.sortBy()) || !order.getDirection().name().equalsIgnoreCase(cursor.direction())) {
+            throw new AlbumBadRequestException("El cursor no corresponde con la ordenación solicitada");
+        }
+        Map<String, Object> keys = new HashMap<>();
+        keys.put("id", cursor.id());
+        try {
+            keys.put(cursor.sortBy(), KEYSET_SORT_FIELDS.get(cursor.sortBy()).apply(cursor.value()));
+        } catch (RuntimeException e) {
+            throw new AlbumBadRequestException("Cursor no válido para ordenar por " + cursor.sortBy());
+        }
+        return ScrollPosition.forward(keys);
+    }
 
-        Specification<Album> specGenero = (root, query, criteriaBuilder) ->
-                genero.map(g -> criteriaBuilder.like(criteriaBuilder.lower(root.get("genero")), "%" + g.toLowerCase() + "%"))
-                        .orElseGet(() -> criteriaBuilder.isTrue(criteriaBuilder.literal(true)));
+    private Specification<Album> criterio(Optional<String> titulo, Optional<String> genero, Optional<String> artista, Optional<Boolean> isDeleted) {
+        Specification<Album> specTitulo = contiene(titulo, AlbumSearchIndex.Campo.TITULO, root -> root.get("titulo"));
+
+        Specification<Album> specGenero = contiene(genero, AlbumSearchIndex.Campo.GENERO, root -> root.get("genero"));
+
+        Specification<Album> specArtista = contiene(artista, AlbumSearchIndex.Campo.ARTISTA, root -> root.get("artista").get("nombre"));
 
         Specification<Album> specIsDeleted = (root, query, criteriaBuilder) ->
                 isDeleted.map(d -> criteriaBuilder.equal(root.get("isDeleted"), d))
                         .orElseGet(() -> criteriaBuilder.isTrue(criteriaBuilder.literal(true)));
 
-        Specification<Album> criterio = Specification.allOf(specTitulo, specGenero, specIsDeleted);
+        return Specification.allOf(specTitulo, specGenero, specArtista, specIsDeleted);
+    }
 
-        return albumRepository.findAll(criterio, pageable)
-                .map(albumMapper::toAlbumResponseDto);
+    // Si el índice de trigramas resuelve la búsqueda se filtra por id, si no se recurre al LIKE
+    private Specification<Album> contiene(Optional<String> texto, AlbumSearchIndex.Campo campo,
+                                          Function<Root<Album>, Expression<String>> atributo) {
+        Optional<Set<Long>> ids = texto.flatMap(t -> albumSearchIndex.buscar(campo, t));
+        return (root, query, criteriaBuilder) -> {
+            if (texto.isEmpty()) {
+                return criteriaBuilder.isTrue(criteriaBuilder.literal(true));
+            }
+            return ids.map(i -> i.isEmpty() ? criteriaBuilder.disjunction() : root.get("id").in(i))
+                    .orElseGet(() -> criteriaBuilder.like(criteriaBuilder.lower(atributo.apply(root)),
+                            "%" + texto.get().toLowerCase() + "%"));
+        };
     }
 
-    @Cacheable(key = "#id")
+    @Cacheable(key = "#id", sync = true)
     @Override
     public AlbumResponseDto findById(Long id) {
-        return albumMapper.toAlbumResponseDto(albumRepository.findById(id)
-                .orElseThrow(()-> new AlbumNotFoundException(id)));
+        return albumRepository.findResponseById(id)
+                .orElseThrow(()-> new AlbumNotFoundException(id));
     }
 
-    @Cacheable(key = "#uuid")
+    @Cacheable(key = "#uuid", sync = true)
     @Override
     public AlbumResponseDto findByUuid(String uuid) {
         try {
             var myUUID = UUID.fromString(uuid);
-            return albumMapper.toAlbumResponseDto(albumRepository.findByUuid(myUUID)
-                    .orElseThrow(() -> new AlbumNotFoundException(myUUID)));
+            return albumRepository.findResponseByUuid(myUUID)
+                    .orElseThrow(() -> new AlbumNotFoundException(myUUID));
         } catch (IllegalArgumentException e) {
             throw new AlbumBadUuidException(uuid);
         }
@@ -97,8 +158,7 @@ public class AlbumServiceImpl implements AlbumService, InitializingBean {
 
     @Override
     public Page<AlbumResponseDto> findByUsuarioId(Long usuarioId, Pageable pageable) {
-        return albumRepository.findByUsuarioId(usuarioId, pageable)
-                .map(albumMapper::toAlbumResponseDto);
+        return albumRepository.findResponseByUsuarioId(usuarioId, pageable);
     }
 
     @Override
@@ -121,15 +181,19 @@ public class AlbumServiceImpl implements AlbumService, InitializingBean {
     }
 
     @CachePut(key = "#result.id")
+    @Transactional
     @Override
     public AlbumResponseDto save(AlbumCreateDto albumCreateDto) {
         Artista artista = checkArtista(albumCreateDto.getNombreArtista());
         Album albumSaved = albumRepository.save(
                 albumMapper.toAlbum(albumCreateDto, artista));
+        albumSearchIndex.indexar(albumSaved);
         onChange(Notificacion.Tipo.CREATE, albumSaved);
         return albumMapper.toAlbumResponseDto(albumSaved);
     }
 
+    @CachePut(key = "#result.id")
+    @Transactional
     @Override
     public AlbumResponseDto save(AlbumCreateDto albumCreateDto, Long usuarioId) {
         Artista artista = checkArtista(albumCreateDto.getNombreArtista());
@@ -139,21 +203,48 @@ public class AlbumServiceImpl implements AlbumService, InitializingBean {
         }
         Album albumSaved = albumRepository.save(
                 albumMapper.toAlbum(albumCreateDto, artista));
+        albumSearchIndex.indexar(albumSaved);
         onChange(Notificacion.Tipo.CREATE, albumSaved);
         return albumMapper.toAlbumResponseDto(albumSaved);
     }
 
+    // Todos o ninguno. Los álbumes y sus filas del outbox se insertan en lotes al hacer commit, por eso no se
+    // consulta nada entre los save (una consulta forzaría a volcar lo pendiente). Como el @CachePut de save, se
+    // guardan en la caché, que así olvida también esos ids si estaban como inexistentes (tras el commit, ver CacheConfig)
+    @Transactional
+    @Override
+    public List<AlbumResponseDto> saveAll(List<AlbumCreateDto> albumCreateDtos) {
+        Map<String, Artista> artistas = new HashMap<>();
+        List<Album> albumes = albumCreateDtos.stream()
+                .map(dto -> albumMapper.toAlbum(dto, artistas.computeIfAbsent(
+                        dto.getNombreArtista().toLowerCase(), nombre -> checkArtista(dto.getNombreArtista()))))
+                .toList();
+        List<Album> albumesSaved = albumRepository.saveAll(albumes);
+        albumesSaved.forEach(albumSearchIndex::indexar);
+        albumOutboxRepository.saveAll(albumesSaved.stream()
+                .map(album -> albumNotificationMapper.toAlbumOutbox(Notificacion.Tipo.CREATE, album))
+                .toList());
+        albumOutboxRelay.avisar();
+        log.info("Importados {} álbumes", albumesSaved.size());
+        List<AlbumResponseDto> respuestas = albumesSaved.stream().map(albumMapper::toAlbumResponseDto).toList();
+        Cache cache = cacheManager.getCache("albumes");
+        respuestas.forEach(respuesta -> cache.put(respuesta.getId(), respuesta));
+        return respuestas;
+    }
+
     @CachePut(key = "#result.id")
+    @Transactional
     @Override
     public AlbumResponseDto update(Long id, AlbumUpdateDto albumUpdateDto) {
         var albumActual = albumRepository.findById(id).orElseThrow(()-> new AlbumNotFoundException(id));
-        Album albumUpdated =  albumRepository.save(
-                albumMapper.toAlbum(albumUpdateDto, albumActual));
+        Album albumUpdated = guardar(albumMapper.toAlbum(albumUpdateDto, albumActual));
+        albumSearchIndex.indexar(albumUpdated);
         onChange(Notificacion.Tipo.UPDATE, albumUpdated);
         return albumMapper.toAlbumResponseDto(albumUpdated);
     }
 
     @CachePut(key = "#result.id")
+    @Transactional
     @Override
     public AlbumResponseDto update(Long id, AlbumUpdateDto albumUpdateDto, Long usuarioId) {
         var albumActual = albumRepository.findById(id).orElseThrow(()-> new AlbumNotFoundException(id));
@@ -162,21 +253,24 @@ public class AlbumServiceImpl implements AlbumService, InitializingBean {
             throw new AlbumBadRequestException("El album " +
                     albumUpdateDto.getTitulo() + " no corresponde a este usuario");
         }
-        Album albumUpdated =  albumRepository.save(
-                albumMapper.toAlbum(albumUpdateDto, albumActual));
+        Album albumUpdated = guardar(albumMapper.toAlbum(albumUpdateDto, albumActual));
+        albumSearchIndex.indexar(albumUpdated);
         onChange(Notificacion.Tipo.UPDATE, albumUpdated);
         return albumMapper.toAlbumResponseDto(albumUpdated);
     }
 
     @CacheEvict(key = "#id")
+    @Transactional
     @Override
     public void deleteById(Long id) {
         Album albumDeleted = albumRepository.findById(id).orElseThrow(()-> new AlbumNotFoundException(id));
-        albumRepository.deleteById(id);
+        borrar(albumDeleted);
+        albumSearchIndex.eliminar(id);
         onChange(Notificacion.Tipo.DELETE, albumDeleted);
     }
 
     @CacheEvict(key = "#id")
+    @Transactional
     @Override
     public void deleteById(Long id, Long usuarioId) {
         Album albumDeleted = albumRepository.findById(id).orElseThrow(()-> new AlbumNotFoundException(id));
@@ -184,37 +278,33 @@ public class AlbumServiceImpl implements AlbumService, InitializingBean {
         if ((usuario != null) && (!usuario.getId().equals(usuarioId))) {
             throw new AlbumBadRequestException("El album " + id + " no corresponde a este usuario");
         }
-        albumRepository.deleteById(id);
+        borrar(albumDeleted);
+        albumSearchIndex.eliminar(id);
         onChange(Notificacion.Tipo.DELETE, albumDeleted);
     }
 
-    public void onChange(Notificacion.Tipo tipo, Album data) {
-        if (webSocketService == null) {
-            webSocketService = this.webSocketConfig.webSocketAlbumesHandler();
+    // Se vuelca ya para que la versión del álbum esté actualizada al notificar y para responder 409, en lugar de
+    // fallar en el commit, si otra petición lo ha cambiado desde que se leyó
+    private Album guardar(Album album) {
+        try {
+            return albumRepository.saveAndFlush(album);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new AlbumConflictException("El álbum " + album.getId() + " ha cambiado mientras se actualizaba");
         }
+    }
 
+    private void borrar(Album album) {
         try {
-            Notificacion<AlbumNotificationResponse> notificacion = new Notificacion<>(
-                    "ALBUMES",
-                    tipo,
-                    albumNotificationMapper.toAlbumNotificationDto(data),
-                    LocalDateTime.now().toString()
-            );
-
-            String json = objectMapper.writeValueAsString(notificacion);
-
-            Thread senderThread = new Thread(() -> {
-                try {
-                    webSocketService.sendMessage(json);
-                } catch (Exception e) {
-                    log.error("Error enviando WS", e);
-                }
-            });
-            senderThread.setName("WebSocketAlbum-" + data.getId());
-            senderThread.setDaemon(true);
-            senderThread.start();
-        } catch (JsonProcessingException e) {
-            log.error("Error JSON", e);
+            albumRepository.delete(album);
+            albumRepository.flush();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new AlbumConflictException("El álbum " + album.getId() + " ha cambiado mientras se borraba");
         }
     }
+
+    // Se guarda en la misma transacción que el cambio; AlbumOutboxRelay la envía tras el commit
+    public void onChange(Notificacion.Tipo tipo, Album data) {
+        albumOutboxRepository.save(albumNotificationMapper.toAlbumOutbox(tipo, data));
+        albumOutboxRelay.avisar();
+    }
 }
\ No newline at end of file
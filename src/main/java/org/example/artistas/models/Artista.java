@@ -20,7 +20,8 @@ import java.util.List;
 @Table(name = "ARTISTAS")
 public class Artista {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "artistas_seq")
+    @SequenceGenerator(name = "artistas_seq", sequenceName = "ARTISTAS_SEQ", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
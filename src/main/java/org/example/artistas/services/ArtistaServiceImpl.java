@@ -3,6 +3,7 @@ package org.example.artistas.services;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.albumes.search.AlbumSearchIndex;
 import org.example.artistas.dto.ArtistaRequestDto;
 import org.example.artistas.exceptions.ArtistaConflictException;
 import org.example.artistas.exceptions.ArtistaNotFoundException;
@@ -27,6 +28,7 @@ import java.util.Optional;
 public class ArtistaServiceImpl implements ArtistaService {
     private final ArtistaRepository artistaRepository;
     private final ArtistaMapper artistaMapper;
+    private final AlbumSearchIndex albumSearchIndex;
 
     @Override
     public Page<Artista> findAll(Optional<String> nombre, Optional<Boolean> isDeleted, Pageable pageable) {
@@ -49,7 +51,7 @@ public class ArtistaServiceImpl implements ArtistaService {
     }
 
     @Override
-    @Cacheable(key = "#id")
+    @Cacheable(key = "#id", sync = true)
     public Artista findById(Long id) {
         return artistaRepository.findById(id).orElseThrow(() -> new ArtistaNotFoundException(id));
     }
@@ -72,7 +74,9 @@ public class ArtistaServiceImpl implements ArtistaService {
                 throw new ArtistaConflictException("Ya existe un artista con el nombre " + artistaRequestDto.getNombre());
             }
         });
-        return artistaRepository.save(artistaMapper.toArtista(artistaRequestDto, artistaActual));
+        Artista artistaUpdated = artistaRepository.save(artistaMapper.toArtista(artistaRequestDto, artistaActual));
+        albumSearchIndex.renombrarArtista(artistaUpdated.getId(), artistaUpdated.getNombre());
+        return artistaUpdated;
     }
 
     @Override
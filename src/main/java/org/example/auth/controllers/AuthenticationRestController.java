@@ -4,11 +4,19 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.auth.dto.JwtAuthResponse;
+import org.example.auth.dto.RefreshTokenRequest;
+import org.example.auth.dto.TokenRevokeRequest;
 import org.example.auth.dto.UserSignInRequest;
 import org.example.auth.dto.UserSignUpRequest;
+import org.example.auth.exceptions.AuthServiceUnavailable;
+import org.example.auth.exceptions.AuthTokenNotValid;
 import org.example.auth.services.authentication.AuthenticationService;
+import org.example.config.auth.PasswordHashingExecutor;
+import org.example.config.bulkhead.Bulkheads;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -16,6 +24,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @Slf4j
@@ -23,17 +32,60 @@ import java.util.Map;
 @RequestMapping("${api.version}/auth")
 public class AuthenticationRestController {
     private final AuthenticationService authenticationService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final Bulkheads bulkheads;
 
+    // El registro y el inicio de sesión calculan BCrypt en su propio pool y liberan el hilo de Tomcat mientras tanto
     @PostMapping("/signin")
-    public ResponseEntity<JwtAuthResponse> signIn(@Valid @RequestBody UserSignInRequest request) {
+    public CompletableFuture<ResponseEntity<JwtAuthResponse>> signIn(@Valid @RequestBody UserSignInRequest request) {
         log.info("Iniciando sesión para el usuario: {}", request.getUsername());
-        return ResponseEntity.ok(authenticationService.signIn(request));
+        return passwordHashingExecutor.submit(() -> ResponseEntity.ok(authenticationService.signIn(request)));
     }
 
     @PostMapping("/signup")
-    public ResponseEntity<JwtAuthResponse> signUp(@Valid @RequestBody UserSignUpRequest request) {
+    public CompletableFuture<ResponseEntity<JwtAuthResponse>> signUp(@Valid @RequestBody UserSignUpRequest request) {
         log.info("Registrando usuario: {}", request.getUsername());
-        return ResponseEntity.status(HttpStatus.CREATED).body(authenticationService.signUp(request));
+        return passwordHashingExecutor.submit(() ->
+                ResponseEntity.status(HttpStatus.CREATED).body(authenticationService.signUp(request)));
+    }
+
+    // Nuevo token de acceso a cambio del de refresco, que se sustituye por otro
+    @PostMapping("/refresh")
+    public ResponseEntity<JwtAuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        log.info("Renovando token de acceso");
+        return ResponseEntity.ok(bulkheads.call(Bulkheads.AUTH, () -> authenticationService.refresh(request.getRefreshToken())));
+    }
+
+    // Revoca el token con el que se hace la petición y, si se envía, el de refresco
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader,
+                                       @RequestBody(required = false) RefreshTokenRequest request) {
+        if (!StringUtils.hasText(authHeader) || !StringUtils.startsWithIgnoreCase(authHeader, "Bearer ")) {
+            throw new AuthTokenNotValid("No se ha encontrado cabecera de autenticación");
+        }
+        log.info("Cerrando sesión");
+        bulkheads.run(Bulkheads.AUTH, () -> {
+            authenticationService.revoke(authHeader.substring(7));
+            if (request != null && StringUtils.hasText(request.getRefreshToken())) {
+                authenticationService.revokeRefreshToken(request.getRefreshToken());
+            }
+        });
+        return ResponseEntity.noContent().build();
+    }
+
+    // Revoca un token que se tiene, por ejemplo el de otro dispositivo
+    @PostMapping("/revoke")
+    public ResponseEntity<Void> revoke(@Valid @RequestBody TokenRevokeRequest request) {
+        log.info("Revocando token");
+        bulkheads.run(Bulkheads.AUTH, () -> authenticationService.revoke(request.getToken()));
+        return ResponseEntity.noContent().build();
+    }
+
+    @ExceptionHandler(AuthServiceUnavailable.class)
+    public ResponseEntity<Map<String, String>> handleServiceUnavailable(AuthServiceUnavailable ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("message", ex.getMessage()));
     }
 
     @ResponseStatus(HttpStatus.BAD_REQUEST)
@@ -11,4 +11,5 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class JwtAuthResponse {
     private String token;
+    private String refreshToken;
 }
\ No newline at end of file
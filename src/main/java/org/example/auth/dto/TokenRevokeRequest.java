@@ -0,0 +1,16 @@
+package org.example.auth.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevokeRequest {
+    @NotBlank(message = "El token no puede estar vacío")
+    private String token;
+}
@@ -0,0 +1,11 @@
+package org.example.auth.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class AuthServiceUnavailable extends AuthException {
+    public AuthServiceUnavailable(String message) {
+        super(message);
+    }
+}
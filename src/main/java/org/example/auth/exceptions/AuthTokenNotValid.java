@@ -0,0 +1,11 @@
+package org.example.auth.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.UNAUTHORIZED)
+public class AuthTokenNotValid extends AuthException {
+    public AuthTokenNotValid(String message) {
+        super(message);
+    }
+}
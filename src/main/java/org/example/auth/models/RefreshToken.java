@@ -0,0 +1,41 @@
+package org.example.auth.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// Token de refresco. Solo se guarda su HMAC, nunca el token. Cada uso lo marca como usado y emite otro de la
+// misma familia; si vuelve a llegar uno usado es que alguien lo ha copiado y se borra la familia entera.
+@Builder
+@ToString
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "REFRESH_TOKENS", indexes = {
+        @Index(name = "IDX_REFRESH_TOKENS_FAMILIA", columnList = "familia"),
+        @Index(name = "IDX_REFRESH_TOKENS_USERNAME", columnList = "username")
+})
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String hash;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(nullable = false)
+    private String familia;
+
+    @Column(nullable = false)
+    private Instant expiracion;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Boolean usado = false;
+}
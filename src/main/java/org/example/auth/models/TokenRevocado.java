@@ -0,0 +1,24 @@
+package org.example.auth.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// Token revocado antes de caducar. Solo se consulta al arrancar; en cada petición se mira la copia en memoria
+// de TokenRevocationServiceImpl. Se borra cuando el token caduca porque a partir de ahí ya no es válido.
+@Builder
+@ToString
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "TOKENS_REVOCADOS")
+public class TokenRevocado {
+    @Id
+    private String jti;
+
+    @Column(nullable = false)
+    private Instant expiracion;
+}
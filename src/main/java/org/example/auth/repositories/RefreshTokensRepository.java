@@ -0,0 +1,35 @@
+package org.example.auth.repositories;
+
+import jakarta.transaction.Transactional;
+import org.example.auth.models.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokensRepository extends JpaRepository<RefreshToken, Long> {
+    Optional<RefreshToken> findByHash(String hash);
+
+    // Solo una de dos peticiones simultáneas con el mismo token consigue marcarlo
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.usado = true WHERE r.id = :id AND r.usado = false")
+    int marcarUsado(Long id);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.familia = :familia")
+    int deleteByFamilia(String familia);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.username IN :usernames")
+    int deleteByUsernameIn(Collection<String> usernames);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiracion < :instant")
+    int deleteByExpiracionBefore(Instant instant);
+}
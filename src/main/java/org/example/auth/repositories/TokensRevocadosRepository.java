@@ -0,0 +1,21 @@
+package org.example.auth.repositories;
+
+import jakarta.transaction.Transactional;
+import org.example.auth.models.TokenRevocado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TokensRevocadosRepository extends JpaRepository<TokenRevocado, String> {
+    List<TokenRevocado> findByExpiracionAfter(Instant instant);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TokenRevocado t WHERE t.expiracion < :instant")
+    int deleteByExpiracionBefore(Instant instant);
+}
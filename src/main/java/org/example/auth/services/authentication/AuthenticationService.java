@@ -7,4 +7,7 @@ import org.example.auth.dto.UserSignUpRequest;
 public interface AuthenticationService {
     JwtAuthResponse signUp(UserSignUpRequest request);
     JwtAuthResponse signIn(UserSignInRequest request);
+    JwtAuthResponse refresh(String refreshToken);
+    void revoke(String token);
+    void revokeRefreshToken(String refreshToken);
 }
\ No newline at end of file
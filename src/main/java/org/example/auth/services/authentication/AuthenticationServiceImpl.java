@@ -8,13 +8,22 @@ import org.example.auth.dto.UserSignUpRequest;
 import org.example.auth.exceptions.AuthDifferentPasswords;
 import org.example.auth.exceptions.AuthExistingUsernameOrEmail;
 import org.example.auth.exceptions.AuthSignInNotValid;
+import org.example.auth.exceptions.AuthTokenNotValid;
 import org.example.auth.repositories.AuthUsersRepository;
+import org.example.auth.services.jwt.JwtClaims;
 import org.example.auth.services.jwt.JwtService;
+import org.example.auth.services.refresh.RefreshTokenService;
+import org.example.auth.services.revocation.TokenRevocationService;
+import org.example.auth.services.users.AuthUsersService;
+import org.example.config.cache.CacheConfig;
 import org.example.users.models.Role;
 import org.example.users.models.User;
+import org.springframework.cache.CacheManager;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -28,6 +37,10 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
+    private final AuthUsersService authUsersService;
+    private final CacheManager cacheManager;
 
     @Override
     public JwtAuthResponse signUp(UserSignUpRequest request) {
@@ -43,7 +56,13 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                     .build();
             try {
                 var userStored = authUsersRepository.save(user);
-                return JwtAuthResponse.builder().token(jwtService.generateToken(userStored)).build();
+                // Los ids salen de una secuencia, así que este pudo consultarse antes de existir y estar en la caché
+                // negativa de usuarios; el evict la limpia (tras el commit si hay transacción, ver CacheConfig)
+                cacheManager.getCache(CacheConfig.USERS).evict(userStored.getId());
+                return JwtAuthResponse.builder()
+                        .token(jwtService.generateToken(userStored))
+                        .refreshToken(refreshTokenService.create(userStored.getUsername()))
+                        .build();
             } catch (DataIntegrityViolationException ex) {
                 throw new AuthExistingUsernameOrEmail("El usuario con username " + request.getUsername() + " o email " + request.getEmail() + " ya existe");
             }
@@ -60,6 +79,46 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         var user = authUsersRepository.findByUsername(request.getUsername())
                 .orElseThrow(() -> new AuthSignInNotValid("Usuario o contraseña incorrectos"));
         var jwt = jwtService.generateToken(user);
-        return JwtAuthResponse.builder().token(jwt).build();
+        return JwtAuthResponse.builder()
+                .token(jwt)
+                .refreshToken(refreshTokenService.create(user.getUsername()))
+                .build();
+    }
+
+    // Sin BCrypt: un HMAC del token de refresco, una búsqueda por índice y el usuario de la caché de principales
+    @Override
+    public JwtAuthResponse refresh(String refreshToken) {
+        var rotacion = refreshTokenService.rotate(refreshToken);
+        final UserDetails user;
+        try {
+            user = authUsersService.loadUserByUsername(rotacion.username());
+        } catch (UsernameNotFoundException e) {
+            throw new AuthTokenNotValid("Token de refresco no válido");
+        }
+        if (!user.isEnabled()) {
+            throw new AuthTokenNotValid("Token de refresco no válido");
+        }
+        return JwtAuthResponse.builder()
+                .token(jwtService.generateToken(user))
+                .refreshToken(rotacion.refreshToken())
+                .build();
+    }
+
+    @Override
+    public void revoke(String token) {
+        final JwtClaims claims;
+        try {
+            claims = jwtService.verify(token);
+        } catch (Exception e) {
+            throw new AuthTokenNotValid("Token no autorizado o no válido");
+        }
+        log.info("Revocando token de {}", claims.subject());
+        tokenRevocationService.revoke(claims);
+    }
+
+    @Override
+    public void revokeRefreshToken(String refreshToken) {
+        log.info("Revocando token de refresco");
+        refreshTokenService.revoke(refreshToken);
     }
 }
\ No newline at end of file
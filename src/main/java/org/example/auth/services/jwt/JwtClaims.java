@@ -0,0 +1,34 @@
+package org.example.auth.services.jwt;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+
+import java.time.Instant;
+import java.util.List;
+
+// Datos de un token ya verificado. Se obtienen una sola vez por petición y son inmutables,
+// así que se pueden compartir sin volver a comprobar la firma.
+public record JwtClaims(
+        String subject,
+        String id,
+        List<String> roles,
+        Instant issuedAt,
+        Instant expiresAt
+) {
+    public JwtClaims {
+        roles = roles == null ? List.of() : List.copyOf(roles);
+    }
+
+    static JwtClaims of(DecodedJWT jwt) {
+        return new JwtClaims(
+                jwt.getSubject(),
+                jwt.getId(),
+                jwt.getClaim("roles").asList(String.class),
+                jwt.getIssuedAtAsInstant(),
+                jwt.getExpiresAtAsInstant()
+        );
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && expiresAt.isBefore(now);
+    }
+}
@@ -7,9 +7,13 @@ import java.util.Map;
 public interface JwtService {
     String extractUserName(String token);
 
+    JwtClaims verify(String token);
+
     String generateToken(UserDetails userDetails);
 
     boolean isTokenValid(String token, UserDetails userDetails);
 
+    boolean isTokenValid(JwtClaims claims, UserDetails userDetails);
+
     String generateToken(Map<String, Object> extraClaims, UserDetails userDetails);
-}
\ No newline at end of file
+}
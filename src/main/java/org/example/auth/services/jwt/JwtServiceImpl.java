@@ -1,12 +1,23 @@
 package org.example.auth.services.jwt;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
-import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -14,40 +25,95 @@ import java.util.UUID;
 
 @Service
 public class JwtServiceImpl implements JwtService {
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    private final Long jwtExpiration;
 
-    @Value("${jwt.expiration}")
-    private Long jwtExpiration;
+    // El algoritmo y el verificador no guardan estado entre llamadas, se crean una vez y se comparten entre hilos
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+
+    // Tokens ya verificados, por su SHA-256 para no guardar el token en memoria. Cada entrada caduca como muy
+    // tarde cuando caduca el token; un token alterado tiene otro resumen y vuelve a pasar por la firma.
+    private final Cache<String, JwtClaims> verificados;
+
+    public JwtServiceImpl(@Value("${jwt.secret}") String jwtSecret,
+                          @Value("${jwt.expiration}") Long jwtExpiration,
+                          @Value("${jwt.cache.maximum-size:10000}") long cacheMaximumSize,
+                          MeterRegistry meterRegistry) {
+        this.jwtExpiration = jwtExpiration;
+        this.algorithm = Algorithm.HMAC256(jwtSecret);
+        this.verifier = JWT.require(algorithm).build();
+        if (cacheMaximumSize > 0) {
+            this.verificados = Caffeine.newBuilder()
+                    .maximumSize(cacheMaximumSize)
+                    .expireAfter(new Expiry<String, JwtClaims>() {
+                        @Override
+                        public long expireAfterCreate(String digest, JwtClaims claims, long currentTime) {
+                            return Math.max(0, Duration.between(Instant.now(), claims.expiresAt()).toNanos());
+                        }
+
+                        @Override
+                        public long expireAfterUpdate(String digest, JwtClaims claims, long currentTime, long currentDuration) {
+                            return currentDuration;
+                        }
+
+                        @Override
+                        public long expireAfterRead(String digest, JwtClaims claims, long currentTime, long currentDuration) {
+                            return currentDuration;
+                        }
+                    })
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, verificados, "jwt");
+        } else {
+            this.verificados = null;
+        }
+    }
 
     @Override
     public String extractUserName(String token) {
-        return extractAllClaims(token).getSubject();
+        return verify(token).subject();
     }
 
     @Override
-    public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+    public JwtClaims verify(String token) {
+        if (verificados == null) {
+            return JwtClaims.of(verifier.verify(token));
+        }
+        String digest = digest(token);
+        JwtClaims claims = verificados.getIfPresent(digest);
+        // La caducidad de Caffeine no es exacta al milisegundo, así que se vuelve a mirar la del token
+        if (claims != null && !claims.isExpired(Instant.now())) {
+            return claims;
+        }
+        claims = JwtClaims.of(verifier.verify(token));
+        if (claims.expiresAt() != null) {
+            verificados.put(digest, claims);
+        }
+        return claims;
     }
 
-    @Override
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUserName(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    @Override
+    public String generateToken(UserDetails userDetails) {
+        return generateToken(new HashMap<>(), userDetails);
     }
 
-    private Date extractExpiration(String token) {
-        return extractAllClaims(token).getExpiresAt();
+    @Override
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        return isTokenValid(verify(token), userDetails);
     }
 
-    private DecodedJWT extractAllClaims(String token) {
-        return JWT.require(Algorithm.HMAC256(jwtSecret))
-                .build()
-                .verify(token);
+    @Override
+    public boolean isTokenValid(JwtClaims claims, UserDetails userDetails) {
+        return claims.subject().equals(userDetails.getUsername()) && !claims.isExpired(Instant.now());
     }
 
     @Override
@@ -62,6 +128,6 @@ public class JwtServiceImpl implements JwtService {
                         .toList())
                 .withJWTId(UUID.randomUUID().toString())
                 .withPayload(extraClaims)
-                .sign(Algorithm.HMAC256(jwtSecret));
+                .sign(algorithm);
     }
-}
\ No newline at end of file
+}
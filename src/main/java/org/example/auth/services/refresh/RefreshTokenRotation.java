@@ -0,0 +1,8 @@
+package org.example.auth.services.refresh;
+
+// Resultado de usar un token de refresco: de quién era y el que lo sustituye
+public record RefreshTokenRotation(
+        String username,
+        String refreshToken
+) {
+}
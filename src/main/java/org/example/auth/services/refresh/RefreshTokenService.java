@@ -0,0 +1,9 @@
+package org.example.auth.services.refresh;
+
+public interface RefreshTokenService {
+    String create(String username);
+
+    RefreshTokenRotation rotate(String refreshToken);
+
+    void revoke(String refreshToken);
+}
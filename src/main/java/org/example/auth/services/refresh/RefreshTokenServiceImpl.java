@@ -0,0 +1,139 @@
+package org.example.auth.services.refresh;
+
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.example.auth.exceptions.AuthTokenNotValid;
+import org.example.auth.models.RefreshToken;
+import org.example.auth.repositories.RefreshTokensRepository;
+import org.example.users.events.UsuarioModificadoEvent;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Los tokens de refresco son 256 bits aleatorios, así que basta un HMAC para guardarlos: no hace falta un hash
+// lento como BCrypt y renovar el token de acceso cuesta un HMAC y una búsqueda por índice.
+@Service
+@Slf4j
+public class RefreshTokenServiceImpl implements RefreshTokenService, InitializingBean, DisposableBean {
+    private static final String ALGORITMO = "HmacSHA256";
+
+    private final RefreshTokensRepository refreshTokensRepository;
+    private final SecretKeySpec clave;
+    private final long expiration;
+    private final long pruneInterval;
+    private final SecureRandom random = new SecureRandom();
+    private ScheduledExecutorService limpieza;
+
+    public RefreshTokenServiceImpl(RefreshTokensRepository refreshTokensRepository,
+                                   @Value("${jwt.refresh.secret}") String refreshSecret,
+                                   @Value("${jwt.refresh.expiration:604800}") long expiration,
+                                   @Value("${jwt.refresh.prune-interval:3600000}") long pruneInterval) {
+        this.refreshTokensRepository = refreshTokensRepository;
+        this.clave = new SecretKeySpec(refreshSecret.getBytes(StandardCharsets.UTF_8), ALGORITMO);
+        this.expiration = expiration;
+        this.pruneInterval = pruneInterval;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (pruneInterval > 0) {
+            limpieza = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("RefreshTokenPrune").daemon().factory());
+            limpieza.scheduleWithFixedDelay(this::podar, pruneInterval, pruneInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (limpieza != null) {
+            limpieza.shutdown();
+        }
+    }
+
+    @Override
+    @Transactional
+    public String create(String username) {
+        return emitir(username, UUID.randomUUID().toString());
+    }
+
+    // Si se reutiliza un token ya usado se borra su familia y esa baja se tiene que confirmar aunque se lance la excepción
+    @Override
+    @Transactional(dontRollbackOn = AuthTokenNotValid.class)
+    public RefreshTokenRotation rotate(String refreshToken) {
+        var guardado = refreshTokensRepository.findByHash(hmac(refreshToken))
+                .orElseThrow(() -> new AuthTokenNotValid("Token de refresco no válido"));
+        if (guardado.getExpiracion().isBefore(Instant.now())) {
+            throw new AuthTokenNotValid("Token de refresco caducado");
+        }
+        if (refreshTokensRepository.marcarUsado(guardado.getId()) == 0) {
+            log.warn("Token de refresco reutilizado para {}, se revoca su familia", guardado.getUsername());
+            refreshTokensRepository.deleteByFamilia(guardado.getFamilia());
+            throw new AuthTokenNotValid("Token de refresco no válido");
+        }
+        log.info("Renovando token de refresco de {}", guardado.getUsername());
+        return new RefreshTokenRotation(guardado.getUsername(), emitir(guardado.getUsername(), guardado.getFamilia()));
+    }
+
+    @Override
+    @Transactional
+    public void revoke(String refreshToken) {
+        refreshTokensRepository.findByHash(hmac(refreshToken))
+                .ifPresent(guardado -> refreshTokensRepository.deleteByFamilia(guardado.getFamilia()));
+    }
+
+    // Si el usuario cambia (p.ej. su contraseña) o se borra, sus tokens de refresco dejan de valer. Antes del commit,
+    // en la misma transacción que el cambio, para que no quede un momento en el que se pueda seguir renovando
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    @Transactional
+    public void onUsuarioModificado(UsuarioModificadoEvent event) {
+        int borrados = refreshTokensRepository.deleteByUsernameIn(event.usernames());
+        log.info("Revocados {} tokens de refresco de {}", borrados, event.usernames());
+    }
+
+    void podar() {
+        try {
+            int borrados = refreshTokensRepository.deleteByExpiracionBefore(Instant.now());
+            log.info("Eliminados {} tokens de refresco caducados", borrados);
+        } catch (Exception e) {
+            log.warn("Error limpiando los tokens de refresco caducados", e);
+        }
+    }
+
+    private String emitir(String username, String familia) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokensRepository.save(RefreshToken.builder()
+                .hash(hmac(token))
+                .username(username)
+                .familia(familia)
+                .expiracion(Instant.now().plusSeconds(expiration))
+                .build());
+        return token;
+    }
+
+    private String hmac(String token) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(clave);
+            return Base64.getEncoder().encodeToString(mac.doFinal(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 no disponible", e);
+        }
+    }
+}
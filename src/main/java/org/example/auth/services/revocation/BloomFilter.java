@@ -0,0 +1,77 @@
+package org.example.auth.services.revocation;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Filtro de Bloom sobre los jti revocados. Si dice que no está, no está; si dice que puede estar hay que
+// confirmarlo en el conjunto exacto. Las escrituras las serializa TokenRevocationServiceImpl y las lecturas
+// no bloquean: AtomicLongArray garantiza que un bit puesto se ve desde cualquier hilo.
+final class BloomFilter {
+    private final AtomicLongArray bits;
+    private final int numBits;
+    private final int numHashes;
+    private final int capacidad;
+
+    BloomFilter(int capacidad, double falsosPositivos) {
+        if (capacidad <= 0 || falsosPositivos <= 0 || falsosPositivos >= 1) {
+            throw new IllegalArgumentException("Capacidad o tasa de falsos positivos no válida");
+        }
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-capacidad * Math.log(falsosPositivos) / (ln2 * ln2));
+        this.numBits = (int) Math.min(Math.max(m, Long.SIZE), Integer.MAX_VALUE - Long.SIZE);
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / capacidad * ln2));
+        this.capacidad = capacidad;
+        this.bits = new AtomicLongArray((numBits + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    void put(String valor) {
+        long hash = hash(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            int bit = indice(h1 + i * h2);
+            long mascara = 1L << bit;
+            int palabra = bit >>> 6;
+            long actual;
+            do {
+                actual = bits.get(palabra);
+            } while ((actual & mascara) == 0 && !bits.compareAndSet(palabra, actual, actual | mascara));
+        }
+    }
+
+    boolean mightContain(String valor) {
+        long hash = hash(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            int bit = indice(h1 + i * h2);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int capacidad() {
+        return capacidad;
+    }
+
+    private int indice(int combinado) {
+        return (combinado & Integer.MAX_VALUE) % numBits;
+    }
+
+    // FNV-1a de 64 bits con la mezcla final de MurmurHash3; de él salen los k índices por doble hashing
+    private static long hash(String valor) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
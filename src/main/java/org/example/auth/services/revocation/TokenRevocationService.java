@@ -0,0 +1,9 @@
+package org.example.auth.services.revocation;
+
+import org.example.auth.services.jwt.JwtClaims;
+
+public interface TokenRevocationService {
+    void revoke(JwtClaims claims);
+
+    boolean isRevoked(String jti);
+}
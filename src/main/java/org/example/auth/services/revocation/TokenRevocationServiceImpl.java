@@ -0,0 +1,128 @@
+package org.example.auth.services.revocation;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.auth.models.TokenRevocado;
+import org.example.auth.repositories.TokensRevocadosRepository;
+import org.example.auth.services.jwt.JwtClaims;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Lista de tokens revocados en memoria: un filtro de Bloom delante de un mapa exacto jti -> caducidad.
+// La inmensa mayoría de tokens no está revocada y el filtro la descarta sin tocar el mapa ni la base de datos.
+// La tabla TOKENS_REVOCADOS solo sirve para recuperar la lista al arrancar.
+@Service
+@Slf4j
+public class TokenRevocationServiceImpl implements TokenRevocationService, InitializingBean, DisposableBean {
+    private final TokensRevocadosRepository tokensRevocadosRepository;
+    private final int capacidadInicial;
+    private final double falsosPositivos;
+    private final long pruneInterval;
+
+    private final Map<String, Instant> revocados = new ConcurrentHashMap<>();
+    // Serializa las escrituras en el filtro y su reconstrucción; las lecturas no bloquean
+    private final Object escritura = new Object();
+    private volatile BloomFilter filtro;
+    private ScheduledExecutorService limpieza;
+
+    public TokenRevocationServiceImpl(TokensRevocadosRepository tokensRevocadosRepository,
+                                      @Value("${jwt.revocation.expected-insertions:100000}") int capacidadInicial,
+                                      @Value("${jwt.revocation.false-positive-rate:0.01}") double falsosPositivos,
+                                      @Value("${jwt.revocation.prune-interval:600000}") long pruneInterval,
+                                      MeterRegistry meterRegistry) {
+        this.tokensRevocadosRepository = tokensRevocadosRepository;
+        this.capacidadInicial = capacidadInicial;
+        this.falsosPositivos = falsosPositivos;
+        this.pruneInterval = pruneInterval;
+        this.filtro = new BloomFilter(capacidadInicial, falsosPositivos);
+        Gauge.builder("jwt.revoked", revocados, Map::size)
+                .description("Tokens revocados que todavía no han caducado")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        var vigentes = tokensRevocadosRepository.findByExpiracionAfter(Instant.now());
+        synchronized (escritura) {
+            vigentes.forEach(token -> revocados.put(token.getJti(), token.getExpiracion()));
+            reconstruir();
+        }
+        log.info("Cargados {} tokens revocados", vigentes.size());
+        if (pruneInterval > 0) {
+            limpieza = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("TokenRevocationPrune").daemon().factory());
+            limpieza.scheduleWithFixedDelay(this::podar, pruneInterval, pruneInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (limpieza != null) {
+            limpieza.shutdown();
+        }
+    }
+
+    @Override
+    public void revoke(JwtClaims claims) {
+        if (claims.id() == null || claims.expiresAt() == null) {
+            throw new IllegalArgumentException("El token no tiene identificador o caducidad y no se puede revocar");
+        }
+        if (claims.isExpired(Instant.now())) {
+            return;
+        }
+        synchronized (escritura) {
+            // Primero el mapa y luego el filtro: quien vea el bit encendido ya encuentra el jti en el mapa
+            if (revocados.putIfAbsent(claims.id(), claims.expiresAt()) != null) {
+                return;
+            }
+            if (revocados.size() > filtro.capacidad()) {
+                reconstruir();
+            } else {
+                filtro.put(claims.id());
+            }
+        }
+        log.info("Revocado el token {} de {}", claims.id(), claims.subject());
+        tokensRevocadosRepository.save(TokenRevocado.builder()
+                .jti(claims.id())
+                .expiracion(claims.expiresAt())
+                .build());
+    }
+
+    @Override
+    public boolean isRevoked(String jti) {
+        return jti != null && filtro.mightContain(jti) && revocados.containsKey(jti);
+    }
+
+    // Un token caducado ya lo rechaza la verificación, así que deja de ocupar sitio en la lista
+    void podar() {
+        Instant ahora = Instant.now();
+        try {
+            synchronized (escritura) {
+                if (revocados.values().removeIf(expiracion -> expiracion.isBefore(ahora))) {
+                    reconstruir();
+                }
+            }
+            tokensRevocadosRepository.deleteByExpiracionBefore(ahora);
+        } catch (Exception e) {
+            log.warn("Error limpiando los tokens revocados caducados", e);
+        }
+    }
+
+    // Un filtro de Bloom no permite borrar, así que se crea uno nuevo con los jti que quedan. Se dimensiona
+    // al doble de lo necesario para no reconstruir en cada revocación si la lista crece.
+    private void reconstruir() {
+        var nuevo = new BloomFilter(Math.max(capacidadInicial, revocados.size() * 2), falsosPositivos);
+        revocados.keySet().forEach(nuevo::put);
+        filtro = nuevo;
+    }
+}
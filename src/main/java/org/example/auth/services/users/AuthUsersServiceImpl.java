@@ -1,19 +1,37 @@
 package org.example.auth.services.users;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.cache.CacheConfig;
+import org.example.users.events.UsuarioModificadoEvent;
 import org.example.users.repositories.UserRepository;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+@Slf4j
 @Service("userDetailsService")
 @RequiredArgsConstructor
 public class AuthUsersServiceImpl implements AuthUsersService {
     private final UserRepository userRepository;
+    private final CacheManager cacheManager;
 
+    // Se llama en cada petición autenticada, así que se sirve de caché (cache.principales.spec)
     @Override
+    @Cacheable(cacheNames = CacheConfig.PRINCIPALES, key = "#username", sync = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado con username: " + username));
     }
-}
\ No newline at end of file
+
+    // Tras el commit para que una petición concurrente no vuelva a cachear el usuario antiguo
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsuarioModificado(UsuarioModificadoEvent event) {
+        log.info("Invalidando usuario autenticado cacheado: {}", event.usernames());
+        var cache = cacheManager.getCache(CacheConfig.PRINCIPALES);
+        event.usernames().forEach(cache::evict);
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.config.auth;
+
+import org.example.auth.services.jwt.JwtClaims;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.function.Supplier;
+
+// Autenticación construida solo con los claims del token. Los roles salen del propio token y el usuario
+// completo se carga la primera vez que alguien pide el principal (p.ej. @AuthenticationPrincipal User),
+// de modo que las peticiones que no lo necesitan no van a base de datos.
+public class JwtAuthentication extends AbstractAuthenticationToken {
+    private final JwtClaims claims;
+    private final transient Supplier<UserDetails> principalLoader;
+    private transient volatile UserDetails principal;
+
+    public JwtAuthentication(JwtClaims claims, Supplier<UserDetails> principalLoader) {
+        super(claims.roles().stream().map(SimpleGrantedAuthority::new).toList());
+        this.claims = claims;
+        this.principalLoader = principalLoader;
+        setAuthenticated(true);
+    }
+
+    public JwtClaims getClaims() {
+        return claims;
+    }
+
+    @Override
+    public String getName() {
+        return claims.subject();
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        UserDetails cargado = principal;
+        if (cargado == null) {
+            cargado = principalLoader.get();
+            principal = cargado;
+        }
+        return cargado;
+    }
+}
@@ -1,6 +1,8 @@
 package org.example.config.auth;
 
+import org.example.auth.services.jwt.JwtClaims;
 import org.example.auth.services.jwt.JwtService;
+import org.example.auth.services.revocation.TokenRevocationService;
 import org.example.auth.services.users.AuthUsersService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -8,6 +10,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContext;
@@ -26,6 +29,11 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final AuthUsersService authUsersService;
+    private final TokenRevocationService tokenRevocationService;
+
+    // En modo sin estado la autenticación sale solo del token, sin buscar al usuario en cada petición
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -34,6 +42,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         log.info("Iniciando el filtro de autenticación");
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
+        final JwtClaims claims;
         UserDetails userDetails = null;
         String userName = null;
 
@@ -46,13 +55,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         log.info("Se ha encontrado cabecera de autenticación, se procesa");
         jwt = authHeader.substring(7);
         try {
-            userName = jwtService.extractUserName(jwt);
+            // Única verificación de la firma en toda la petición
+            claims = jwtService.verify(jwt);
+            userName = claims.subject();
         } catch (Exception e) {
             log.info("Token no válido");
             response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token no autorizado o no válido");
             return;
         }
+        // Se consulta en memoria, sin ir a la base de datos
+        if (tokenRevocationService.isRevoked(claims.id())) {
+            log.info("Token revocado");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token revocado");
+            return;
+        }
         log.info("Usuario autenticado: {}", userName);
+        if (stateless && StringUtils.hasText(userName)
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            final String username = userName;
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            JwtAuthentication authToken = new JwtAuthentication(claims, () -> authUsersService.loadUserByUsername(username));
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            context.setAuthentication(authToken);
+            SecurityContextHolder.setContext(context);
+            filterChain.doFilter(request, response);
+            return;
+        }
         if (StringUtils.hasText(userName)
                 && SecurityContextHolder.getContext().getAuthentication() == null) {
             log.info("Comprobando usuario y token");
@@ -64,7 +92,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 return;
             }
             log.info("Usuario encontrado: {}", userDetails);
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (jwtService.isTokenValid(claims, userDetails)) {
                 log.info("JWT válido");
                 SecurityContext context = SecurityContextHolder.createEmptyContext();
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
@@ -0,0 +1,83 @@
+package org.example.config.auth;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.auth.exceptions.AuthServiceUnavailable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Pool propio para el registro y el inicio de sesión, que pasan casi todo el tiempo calculando BCrypt.
+// Así una avalancha de logins ocupa como mucho max-concurrency núcleos y no deja sin hilos de Tomcat
+// al resto de la API. Si la cola está llena o una tarea ha esperado más de queue-timeout se responde 503
+// sin llegar a calcular el hash.
+@Component
+@Slf4j
+public class PasswordHashingExecutor implements DisposableBean {
+    private final ThreadPoolExecutor executor;
+    private final long queueTimeoutNanos;
+    private final Timer espera;
+    private final Counter colaLlena;
+    private final Counter esperaAgotada;
+
+    public PasswordHashingExecutor(@Value("${auth.hashing.max-concurrency:4}") int maxConcurrency,
+                                   @Value("${auth.hashing.queue-capacity:100}") int queueCapacity,
+                                   @Value("${auth.hashing.queue-timeout:2000}") long queueTimeout,
+                                   MeterRegistry meterRegistry) {
+        this.executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("PasswordHashing-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeout);
+        this.espera = Timer.builder("auth.hashing.queue.wait")
+                .description("Tiempo que espera en cola un registro o inicio de sesión antes de ejecutarse")
+                .register(meterRegistry);
+        this.colaLlena = Counter.builder("auth.hashing.rejected")
+                .description("Registros o inicios de sesión rechazados con 503 por sobrecarga")
+                .tag("reason", "queue-full")
+                .register(meterRegistry);
+        this.esperaAgotada = Counter.builder("auth.hashing.rejected")
+                .description("Registros o inicios de sesión rechazados con 503 por sobrecarga")
+                .tag("reason", "queue-timeout")
+                .register(meterRegistry);
+        Gauge.builder("auth.hashing.queue.size", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> tarea) {
+        long encolada = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long esperado = System.nanoTime() - encolada;
+                espera.record(esperado, TimeUnit.NANOSECONDS);
+                if (esperado > queueTimeoutNanos) {
+                    esperaAgotada.increment();
+                    throw new AuthServiceUnavailable("Servicio de autenticación saturado, inténtelo más tarde");
+                }
+                return tarea.get();
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Cola de autenticación llena, se rechaza la petición");
+            colaLlena.increment();
+            return CompletableFuture.failedFuture(
+                    new AuthServiceUnavailable("Servicio de autenticación saturado, inténtelo más tarde"));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.config.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Compartimento estanco para un grupo de endpoints: como mucho maxConcurrentCalls hilos a la vez dentro y los
+// demás esperan un hueco hasta maxWait. Si un grupo se atasca solo agota sus propios permisos y el resto de
+// hilos de Tomcat sigue atendiendo a los demás grupos.
+public class Bulkhead {
+    private final String name;
+    private final int maxConcurrentCalls;
+    private final long maxWaitNanos;
+    private final Semaphore permisos;
+    private final Timer espera;
+    private final Counter rechazadas;
+
+    public Bulkhead(String name, int maxConcurrentCalls, Duration maxWait, MeterRegistry meterRegistry) {
+        if (maxConcurrentCalls <= 0) {
+            throw new IllegalArgumentException("El bulkhead " + name + " necesita al menos una llamada simultánea");
+        }
+        this.name = name;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.permisos = new Semaphore(maxConcurrentCalls);
+        this.espera = Timer.builder("bulkhead.wait")
+                .description("Tiempo esperando un hueco en el bulkhead")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.rechazadas = Counter.builder("bulkhead.rejected")
+                .description("Llamadas rechazadas con 503 por bulkhead lleno")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.active", this, Bulkhead::getActiveCalls)
+                .description("Llamadas en curso dentro del bulkhead")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.saturation", this, bulkhead -> (double) bulkhead.getActiveCalls() / bulkhead.maxConcurrentCalls)
+                .description("Fracción de las llamadas simultáneas permitidas que está en uso")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public <T> T call(Supplier<T> llamada) {
+        entrar();
+        try {
+            return llamada.get();
+        } finally {
+            permisos.release();
+        }
+    }
+
+    public void run(Runnable llamada) {
+        entrar();
+        try {
+            llamada.run();
+        } finally {
+            permisos.release();
+        }
+    }
+
+    private void entrar() {
+        long inicio = System.nanoTime();
+        boolean dentro;
+        try {
+            dentro = permisos.tryAcquire() || (maxWaitNanos > 0 && permisos.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dentro = false;
+        }
+        espera.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        if (!dentro) {
+            rechazadas.increment();
+            throw new BulkheadFullException("Servicio saturado (" + name + "), inténtelo más tarde");
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getActiveCalls() {
+        return maxConcurrentCalls - permisos.availablePermits();
+    }
+}
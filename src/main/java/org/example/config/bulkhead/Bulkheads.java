@@ -0,0 +1,63 @@
+package org.example.config.bulkhead;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Bulkheads con nombre declarados en application.properties (bulkheads.<nombre>.max-concurrent-calls y
+// bulkheads.<nombre>.max-wait). Los controladores envuelven con ellos las llamadas a los servicios.
+@Slf4j
+@Component
+public class Bulkheads {
+    public static final String ALBUMES_LECTURA = "albumes-lectura";
+    public static final String ALBUMES_ESCRITURA = "albumes-escritura";
+    public static final String AUTH = "auth";
+
+    record Config(int maxConcurrentCalls, Duration maxWait) {
+    }
+
+    private final Map<String, Bulkhead> bulkheads = new HashMap<>();
+
+    @Autowired
+    public Bulkheads(Environment environment, MeterRegistry meterRegistry) {
+        this(Binder.get(environment)
+                .bind("bulkheads", Bindable.mapOf(String.class, Config.class))
+                .orElse(Map.of()), meterRegistry);
+        // Mejor no arrancar que descubrirlo con un 500 en la primera petición
+        List.of(ALBUMES_LECTURA, ALBUMES_ESCRITURA, AUTH).forEach(this::get);
+    }
+
+    Bulkheads(Map<String, Config> configuracion, MeterRegistry meterRegistry) {
+        configuracion.forEach((nombre, config) -> {
+            var maxWait = config.maxWait() == null ? Duration.ZERO : config.maxWait();
+            log.info("Bulkhead {}: {} llamadas simultáneas, espera máxima {}", nombre, config.maxConcurrentCalls(), maxWait);
+            bulkheads.put(nombre, new Bulkhead(nombre, config.maxConcurrentCalls(), maxWait, meterRegistry));
+        });
+    }
+
+    public Bulkhead get(String nombre) {
+        var bulkhead = bulkheads.get(nombre);
+        if (bulkhead == null) {
+            throw new IllegalStateException("Bulkhead " + nombre + " no configurado en bulkheads." + nombre);
+        }
+        return bulkhead;
+    }
+
+    public <T> T call(String nombre, Supplier<T> llamada) {
+        return get(nombre).call(llamada);
+    }
+
+    public void run(String nombre, Runnable llamada) {
+        get(nombre).run(llamada);
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.albumes.dto.AlbumResponseDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Configuration
+public class CacheConfig {
+    public static final String ALBUMES = "albumes";
+    public static final String USERS = "users";
+    public static final String PRINCIPALES = "principales";
+    public static final List<String> CACHE_NAMES = List.of(ALBUMES, "artistas", USERS, PRINCIPALES);
+
+    @Value("${cache.default.spec}")
+    private String defaultSpec;
+
+    @Value("${cache.negative.spec}")
+    private String negativeSpec;
+
+    // Caffeine usa W-TinyLFU para el desalojo; cada caché tiene su tamaño máximo y expiración (cache.<nombre>.spec).
+    // Los put y evict dentro de una transacción esperan a su commit (y se descartan si hace rollback), así la
+    // caché nunca guarda algo que otra petición aún no puede leer de la base de datos
+    @Bean
+    public CacheManager cacheManager(Environment environment, MeterRegistry meterRegistry) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                if (ALBUMES.equals(name)) {
+                    // Los álbumes se cachean por id y por uuid, ambas claves resuelven a la misma entrada
+                    return new TransactionAwareCacheDecorator(new DualKeyCaffeineCache(name, cache,
+                            isAllowNullValues(), meterRegistry, absentCache(),
+                            value -> ((AlbumResponseDto) value).getId(),
+                            value -> ((AlbumResponseDto) value).getUuid(),
+                            key -> key instanceof String || key instanceof UUID));
+                }
+                return new TransactionAwareCacheDecorator(
+                        new SingleFlightCaffeineCache(name, cache, isAllowNullValues(), meterRegistry, absentCache()));
+            }
+        };
+        cacheManager.setCaffeine(Caffeine.from(defaultSpec).recordStats());
+        for (String name : CACHE_NAMES) {
+            String spec = environment.getProperty("cache." + name + ".spec", defaultSpec);
+            log.info("Configurando caché {} con {}", name, spec);
+            cacheManager.registerCustomCache(name, Caffeine.from(spec).recordStats().build());
+        }
+        return cacheManager;
+    }
+
+    // Claves que no existen en base de datos, con una expiración corta (cache.negative.spec)
+    private com.github.benmanes.caffeine.cache.Cache<Object, RuntimeException> absentCache() {
+        return Caffeine.from(negativeSpec).build();
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.config.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// Caché indexada por dos claves (p.ej. id y uuid). El valor se guarda una sola vez bajo la clave
+// principal y la secundaria es un alias que apunta a ella, así una actualización o un borrado por
+// cualquiera de las dos claves nunca deja una copia obsoleta accesible por la otra.
+// Las cargas por la clave secundaria no pueden usar el cómputo de Caffeine (la entrada se guarda bajo la principal,
+// que no se conoce hasta cargar), así que solo se guardan si no ha habido ningún evict mientras cargaban.
+public class DualKeyCaffeineCache extends SingleFlightCaffeineCache {
+    private final Function<Object, Object> primaryKeyOf;
+    private final Function<Object, Object> secondaryKeyOf;
+    private final Predicate<Object> isSecondaryKey;
+    private final Object evicts = new Object();
+    private long evictGeneration;
+
+    private record SecondaryKey(Object key) {
+    }
+
+    public DualKeyCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                                boolean allowNullValues, MeterRegistry meterRegistry,
+                                com.github.benmanes.caffeine.cache.Cache<Object, RuntimeException> absent,
+                                Function<Object, Object> primaryKeyOf,
+                                Function<Object, Object> secondaryKeyOf,
+                                Predicate<Object> isSecondaryKey) {
+        super(name, cache, allowNullValues, meterRegistry, absent);
+        this.primaryKeyOf = primaryKeyOf;
+        this.secondaryKeyOf = secondaryKeyOf;
+        this.isSecondaryKey = isSecondaryKey;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object primaryKey = primaryKey(key);
+        return primaryKey == null ? null : getNativeCache().getIfPresent(primaryKey);
+    }
+
+    @Override
+    protected <T> T load(Object key, Callable<T> valueLoader) {
+        if (!isSecondaryKey.test(key)) {
+            return super.load(key, valueLoader);
+        }
+        long generation;
+        synchronized (evicts) {
+            generation = evictGeneration;
+        }
+        T value = callLoader(key, valueLoader);
+        synchronized (evicts) {
+            if (value != null && generation == evictGeneration) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            super.put(key, null);
+            return;
+        }
+        Object primaryKey = primaryKeyOf.apply(value);
+        Object secondaryKey = secondaryKeyOf.apply(value);
+        getNativeCache().put(primaryKey, toStoreValue(value));
+        getNativeCache().put(new SecondaryKey(normalize(secondaryKey)), primaryKey);
+        forgetAbsent(primaryKey);
+        forgetAbsent(secondaryKey);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        Object stored = lookup(key);
+        if (stored != null) {
+            return new SimpleValueWrapper(fromStoreValue(stored));
+        }
+        put(key, value);
+        return null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictIfPresent(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        synchronized (evicts) {
+            evictGeneration++;
+        }
+        forgetAbsent(key);
+        Object primaryKey = primaryKey(key);
+        if (primaryKey == null) {
+            return false;
+        }
+        Object stored = getNativeCache().asMap().remove(primaryKey);
+        if (stored != null && fromStoreValue(stored) != null) {
+            getNativeCache().invalidate(new SecondaryKey(normalize(secondaryKeyOf.apply(fromStoreValue(stored)))));
+        }
+        if (isSecondaryKey.test(key)) {
+            getNativeCache().invalidate(new SecondaryKey(normalize(key)));
+        }
+        return stored != null;
+    }
+
+    @Override
+    public void clear() {
+        synchronized (evicts) {
+            evictGeneration++;
+        }
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        synchronized (evicts) {
+            evictGeneration++;
+        }
+        return super.invalidate();
+    }
+
+    @Override
+    protected Object absentKey(Object key) {
+        return isSecondaryKey.test(key) ? new SecondaryKey(normalize(key)) : key;
+    }
+
+    private Object primaryKey(Object key) {
+        if (!isSecondaryKey.test(key)) {
+            return key;
+        }
+        return getNativeCache().getIfPresent(new SecondaryKey(normalize(key)));
+    }
+
+    private static Object normalize(Object secondaryKey) {
+        return secondaryKey.toString().toLowerCase();
+    }
+}
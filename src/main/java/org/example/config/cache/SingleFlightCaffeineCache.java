@@ -0,0 +1,135 @@
+package org.example.config.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.interceptor.CacheOperationInvoker;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Caché que agrupa los fallos concurrentes de una misma clave (@Cacheable(sync = true)) con el cómputo atómico de
+// Caffeine: solo un hilo ejecuta la carga y el resto espera su resultado o su excepción.
+// Además recuerda durante un tiempo corto las claves cuya carga terminó en un 404 (caché negativa)
+// para no volver a consultar la base de datos; cualquier put o evict de esa clave la vuelve a habilitar.
+public class SingleFlightCaffeineCache extends CaffeineCache {
+    private final com.github.benmanes.caffeine.cache.Cache<Object, RuntimeException> absent;
+    private final Counter loads;
+    private final Counter coalesced;
+    private final Counter negativeHits;
+
+    public SingleFlightCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                                     boolean allowNullValues, MeterRegistry meterRegistry,
+                                     com.github.benmanes.caffeine.cache.Cache<Object, RuntimeException> absent) {
+        super(name, cache, allowNullValues);
+        this.absent = absent;
+        this.loads = Counter.builder("cache.loads.singleflight")
+                .description("Cargas ejecutadas tras un fallo de caché")
+                .tag("cache", name)
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("cache.loads.coalesced")
+                .description("Cargas evitadas porque otra petición ya estaba cargando la misma clave")
+                .tag("cache", name)
+                .register(meterRegistry);
+        this.negativeHits = Counter.builder("cache.negative.hits")
+                .description("Consultas de claves inexistentes respondidas sin ir a la base de datos")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object stored = lookup(key);
+        if (stored != null) {
+            return (T) fromStoreValue(stored);
+        }
+        RuntimeException notFound = absent.getIfPresent(absentKey(key));
+        if (notFound != null) {
+            negativeHits.increment();
+            throw new ValueRetrievalException(key, valueLoader, new CacheOperationInvoker.ThrowableWrapper(notFound));
+        }
+        return load(key, valueLoader);
+    }
+
+    // La carga es el cómputo atómico de Caffeine sobre la clave: quien llega mientras otro carga espera su
+    // resultado, y un evict de la clave espera a que termine la carga y la borra, así no queda un valor
+    // anterior al cambio que provocó el evict
+    protected <T> T load(Object key, Callable<T> valueLoader) {
+        AtomicBoolean loaded = new AtomicBoolean();
+        try {
+            T value = super.get(key, () -> {
+                loaded.set(true);
+                loads.increment();
+                return valueLoader.call();
+            });
+            if (!loaded.get()) {
+                coalesced.increment();
+            }
+            return value;
+        } catch (ValueRetrievalException e) {
+            rememberIfNotFound(key, e.getCause());
+            throw e;
+        }
+    }
+
+    // Cargas que no se pueden hacer con el cómputo de Caffeine (p.ej. por una clave secundaria)
+    protected <T> T callLoader(Object key, Callable<T> valueLoader) {
+        loads.increment();
+        try {
+            return valueLoader.call();
+        } catch (Exception e) {
+            rememberIfNotFound(key, e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        super.put(key, value);
+        forgetAbsent(key);
+    }
+
+    @Override
+    public void evict(Object key) {
+        super.evict(key);
+        forgetAbsent(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        forgetAbsent(key);
+        return super.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        absent.invalidateAll();
+    }
+
+    @Override
+    public boolean invalidate() {
+        absent.invalidateAll();
+        return super.invalidate();
+    }
+
+    protected Object absentKey(Object key) {
+        return key;
+    }
+
+    protected void forgetAbsent(Object key) {
+        absent.invalidate(absentKey(key));
+    }
+
+    private void rememberIfNotFound(Object key, Throwable e) {
+        Throwable original = e instanceof CacheOperationInvoker.ThrowableWrapper wrapper ? wrapper.getOriginal() : e;
+        ResponseStatus status = AnnotatedElementUtils.findMergedAnnotation(original.getClass(), ResponseStatus.class);
+        if (status != null && status.code() == HttpStatus.NOT_FOUND && original instanceof RuntimeException notFound) {
+            absent.put(absentKey(key), notFound);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.config.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Límite adaptativo de peticiones simultáneas por recurso de la API. Lo que no cabe se rechaza al momento con
+// 503 en vez de quedarse en la cola de Tomcat haciendo más lentas al resto. Las escrituras solo pueden ocupar
+// write-share del límite, así que con el servidor saturado se rechazan antes que las lecturas.
+@Slf4j
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private static final List<String> RECURSOS = List.of("albumes", "artistas", "users");
+
+    private final boolean enabled;
+    private final double writeShare;
+    private final Map<String, Ruta> rutas = new LinkedHashMap<>();
+
+    private record Ruta(GradientConcurrencyLimiter limiter, Counter lecturasRechazadas, Counter escriturasRechazadas) {
+    }
+
+    public ConcurrencyLimitFilter(@Value("${api.version}") String apiVersion,
+                                  @Value("${concurrency.enabled:true}") boolean enabled,
+                                  @Value("${concurrency.initial-limit:20}") int initialLimit,
+                                  @Value("${concurrency.min-limit:5}") int minLimit,
+                                  @Value("${concurrency.max-limit:200}") int maxLimit,
+                                  @Value("${concurrency.rtt-tolerance:1.5}") double rttTolerance,
+                                  @Value("${concurrency.write-share:0.8}") double writeShare,
+                                  MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.writeShare = writeShare;
+        for (String recurso : RECURSOS) {
+            var limiter = new GradientConcurrencyLimiter(initialLimit, minLimit, maxLimit, rttTolerance);
+            Gauge.builder("concurrency.limit", limiter, GradientConcurrencyLimiter::getLimit)
+                    .description("Peticiones simultáneas admitidas ahora mismo")
+                    .tag("route", recurso)
+                    .register(meterRegistry);
+            Gauge.builder("concurrency.inflight", limiter, GradientConcurrencyLimiter::getInFlight)
+                    .description("Peticiones en curso")
+                    .tag("route", recurso)
+                    .register(meterRegistry);
+            rutas.put("/api/" + apiVersion + "/" + recurso, new Ruta(limiter,
+                    rechazadas(meterRegistry, recurso, "read"),
+                    rechazadas(meterRegistry, recurso, "write")));
+        }
+    }
+
+    private static Counter rechazadas(MeterRegistry meterRegistry, String recurso, String prioridad) {
+        return Counter.builder("concurrency.rejected")
+                .description("Peticiones rechazadas con 503 por superar el límite de concurrencia")
+                .tag("route", recurso)
+                .tag("priority", prioridad)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || ruta(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        Ruta ruta = ruta(request);
+        boolean lectura = switch (request.getMethod()) {
+            case "GET", "HEAD", "OPTIONS" -> true;
+            default -> false;
+        };
+        if (!ruta.limiter().tryAcquire(lectura ? 1.0 : writeShare)) {
+            (lectura ? ruta.lecturasRechazadas() : ruta.escriturasRechazadas()).increment();
+            log.debug("Límite de concurrencia alcanzado en {}", request.getRequestURI());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Servicio saturado, inténtelo más tarde");
+            return;
+        }
+        long inicio = System.nanoTime();
+        boolean completada = false;
+        try {
+            filterChain.doFilter(request, response);
+            completada = response.getStatus() < 500;
+        } finally {
+            if (completada) {
+                ruta.limiter().release(System.nanoTime() - inicio);
+            } else {
+                ruta.limiter().releaseWithoutSample();
+            }
+        }
+    }
+
+    private Ruta ruta(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (var entry : rutas.entrySet()) {
+            String prefijo = entry.getKey();
+            if (path.startsWith(prefijo)
+                    && (path.length() == prefijo.length() || path.charAt(prefijo.length()) == '/')) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.config.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Límite de peticiones simultáneas que se ajusta solo, al estilo del gradiente de Netflix concurrency-limits.
+// Compara el tiempo de respuesta reciente con el habitual: si no empeora el límite crece en sqrt(límite) y si
+// empeora (hay cola) baja en proporción, como mucho a la mitad. Así el servidor no acepta más trabajo del que
+// puede terminar sin que crezca la latencia de todos.
+public class GradientConcurrencyLimiter {
+    private static final double SUAVIZADO = 0.2;
+    private static final double PESO_LARGO = 0.01;
+    private static final double PESO_CORTO = 0.1;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final AtomicInteger enVuelo = new AtomicInteger();
+    private volatile double limit;
+
+    // Solo se tocan dentro de muestra(), que está sincronizado
+    private double rttLargo;
+    private double rttCorto;
+
+    public GradientConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double rttTolerance) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    // share es la fracción del límite que puede ocupar esta petición: con menos de 1 se reserva el resto para
+    // peticiones más prioritarias, que así son las últimas en rechazarse
+    public boolean tryAcquire(double share) {
+        int maximo = Math.max(1, (int) (limit * share));
+        while (true) {
+            int actual = enVuelo.get();
+            if (actual >= maximo) {
+                return false;
+            }
+            if (enVuelo.compareAndSet(actual, actual + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long rttNanos) {
+        int enVueloAntes = enVuelo.getAndDecrement();
+        muestra(rttNanos, enVueloAntes);
+    }
+
+    // Para peticiones que terminan con error: su tiempo no dice nada de la capacidad del servidor
+    public void releaseWithoutSample() {
+        enVuelo.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return enVuelo.get();
+    }
+
+    private synchronized void muestra(long rtt, int enVueloAntes) {
+        if (rtt <= 0) {
+            return;
+        }
+        if (rttLargo == 0) {
+            rttLargo = rtt;
+            rttCorto = rtt;
+        } else {
+            rttLargo += (rtt - rttLargo) * PESO_LARGO;
+            rttCorto += (rtt - rttCorto) * PESO_CORTO;
+        }
+        // Si la latencia baja mucho, el tiempo habitual se actualiza más deprisa para no quedarse anclado en el pasado
+        if (rttLargo / rttCorto > 2) {
+            rttLargo *= 0.95;
+        }
+        double actual = limit;
+        // Con poca carga la latencia no dice nada sobre el límite
+        if (enVueloAntes < actual / 2) {
+            return;
+        }
+        double gradiente = Math.max(0.5, Math.min(1.0, rttTolerance * rttLargo / rttCorto));
+        double nuevo = actual * gradiente + Math.sqrt(actual);
+        nuevo = actual * (1 - SUAVIZADO) + nuevo * SUAVIZADO;
+        limit = Math.max(minLimit, Math.min(maxLimit, nuevo));
+    }
+}
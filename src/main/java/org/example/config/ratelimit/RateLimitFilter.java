@@ -0,0 +1,141 @@
+package org.example.config.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Límite de peticiones por usuario autenticado o, si no lo hay, por IP, con un presupuesto distinto para
+// registro e inicio de sesión, lecturas y escrituras. En /api/** va en la cadena de seguridad justo después de
+// JwtAuthenticationFilter para conocer al usuario; el resto de rutas (auth) lo recibe como filtro del servlet.
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter implements DisposableBean {
+    private final boolean enabled;
+    private final String apiPath;
+    private final String authPath;
+    private final Grupo auth;
+    private final Grupo lectura;
+    private final Grupo escritura;
+    private final ScheduledExecutorService limpieza;
+
+    private record Grupo(TokenBucketRateLimiter limiter, Counter rechazadas) {
+    }
+
+    public RateLimitFilter(@Value("${api.version}") String apiVersion,
+                           @Value("${ratelimit.enabled:true}") boolean enabled,
+                           @Value("${ratelimit.auth.capacity:10}") long authCapacity,
+                           @Value("${ratelimit.auth.refill-per-second:1}") double authRefill,
+                           @Value("${ratelimit.read.capacity:200}") long readCapacity,
+                           @Value("${ratelimit.read.refill-per-second:100}") double readRefill,
+                           @Value("${ratelimit.write.capacity:50}") long writeCapacity,
+                           @Value("${ratelimit.write.refill-per-second:10}") double writeRefill,
+                           @Value("${ratelimit.eviction-interval:60000}") long evictionInterval,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.apiPath = "/api/";
+        this.authPath = "/" + apiVersion + "/auth/";
+        this.auth = grupo("auth", authCapacity, authRefill, meterRegistry);
+        this.lectura = grupo("read", readCapacity, readRefill, meterRegistry);
+        this.escritura = grupo("write", writeCapacity, writeRefill, meterRegistry);
+        if (enabled && evictionInterval > 0) {
+            limpieza = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("RateLimitEviction").daemon().factory());
+            limpieza.scheduleWithFixedDelay(this::limpiar, evictionInterval, evictionInterval, TimeUnit.MILLISECONDS);
+        } else {
+            limpieza = null;
+        }
+    }
+
+    private static Grupo grupo(String nombre, long capacity, double refill, MeterRegistry meterRegistry) {
+        var limiter = new TokenBucketRateLimiter(capacity, refill);
+        Gauge.builder("ratelimit.buckets", limiter, TokenBucketRateLimiter::size)
+                .description("Claves con cubo de fichas en memoria")
+                .tag("group", nombre)
+                .register(meterRegistry);
+        var rechazadas = Counter.builder("ratelimit.rejected")
+                .description("Peticiones rechazadas con 429 por superar el límite")
+                .tag("group", nombre)
+                .register(meterRegistry);
+        return new Grupo(limiter, rechazadas);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (!enabled) {
+            return true;
+        }
+        String path = path(request);
+        return !path.startsWith(apiPath) && !path.startsWith(authPath);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        Grupo grupo = grupo(request);
+        long espera = grupo.limiter().tryAcquire(clave(request));
+        if (espera > 0) {
+            grupo.rechazadas().increment();
+            long segundos = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(espera + TimeUnit.SECONDS.toNanos(1) - 1));
+            log.debug("Límite de peticiones superado, reintentar en {} s", segundos);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Demasiadas peticiones, inténtelo más tarde");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private Grupo grupo(HttpServletRequest request) {
+        if (path(request).startsWith(authPath)) {
+            return auth;
+        }
+        return switch (request.getMethod()) {
+            case "GET", "HEAD", "OPTIONS" -> lectura;
+            default -> escritura;
+        };
+    }
+
+    private static String clave(HttpServletRequest request) {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "u:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private void limpiar() {
+        int eliminados = auth.limiter().evictIdle() + lectura.limiter().evictIdle() + escritura.limiter().evictIdle();
+        log.debug("Eliminados {} cubos de fichas inactivos", eliminados);
+    }
+
+    @Override
+    public void destroy() {
+        if (limpieza != null) {
+            limpieza.shutdown();
+        }
+    }
+}
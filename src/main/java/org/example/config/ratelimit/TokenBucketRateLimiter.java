@@ -0,0 +1,61 @@
+package org.example.config.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cubo de fichas por clave implementado como GCRA: en vez de fichas y última recarga se guarda un solo instante,
+// el momento teórico en que el cubo vuelve a estar lleno, y cada petición lo adelanta con un CAS. Sin bloqueos
+// y sin reservar memoria por petición; ConcurrentHashMap ya reparte las claves en celdas independientes.
+public class TokenBucketRateLimiter {
+    private final long intervalo;
+    private final long tolerancia;
+    private final ConcurrentMap<String, AtomicLong> cubos = new ConcurrentHashMap<>();
+
+    public TokenBucketRateLimiter(long capacity, double refillPerSecond) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("La capacidad y la recarga deben ser positivas");
+        }
+        this.intervalo = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+        this.tolerancia = intervalo * capacity;
+    }
+
+    // Devuelve 0 si la petición pasa o los nanosegundos que faltan para que haya una ficha
+    public long tryAcquire(String clave) {
+        return tryAcquire(clave, System.nanoTime());
+    }
+
+    long tryAcquire(String clave, long ahora) {
+        AtomicLong lleno = cubos.get(clave);
+        if (lleno == null) {
+            lleno = cubos.computeIfAbsent(clave, k -> new AtomicLong(ahora));
+        }
+        while (true) {
+            long actual = lleno.get();
+            long siguiente = Math.max(actual, ahora) + intervalo;
+            long permitidoDesde = siguiente - tolerancia;
+            if (ahora < permitidoDesde) {
+                return permitidoDesde - ahora;
+            }
+            if (lleno.compareAndSet(actual, siguiente)) {
+                return 0;
+            }
+        }
+    }
+
+    // Un cubo lleno se comporta igual que uno nuevo, así que se puede borrar sin cambiar el resultado. Si justo
+    // entonces otra petición consume del cubo borrado, esa ficha se pierde y la clave gana una petición de más.
+    public int evictIdle() {
+        return evictIdle(System.nanoTime());
+    }
+
+    int evictIdle(long ahora) {
+        int antes = cubos.size();
+        cubos.values().removeIf(lleno -> lleno.get() <= ahora);
+        return antes - cubos.size();
+    }
+
+    public int size() {
+        return cubos.size();
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.config.threads;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// Un hilo virtual que se bloquea dentro de un synchronized (o en código nativo) no suelta su hilo portador, y con
+// pocos portadores unos cuantos bloqueos así paran toda la aplicación. Escucha con JFR los eventos
+// jdk.VirtualThreadPinned que duran más de threshold y avisa la primera vez que aparece cada punto del código.
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "threads.pinning.enabled", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadPinningMonitor implements InitializingBean, DisposableBean {
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+    private static final String PAQUETE = "org.example.";
+
+    private final Duration threshold;
+    private final Timer fijados;
+    private final Set<String> origenes = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(@Value("${threads.pinning.threshold:20}") long threshold,
+                                       MeterRegistry meterRegistry) {
+        this.threshold = Duration.ofMillis(threshold);
+        this.fijados = Timer.builder("threads.virtual.pinned")
+                .description("Tiempo que un hilo virtual ha estado bloqueado sin soltar su hilo portador")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        stream = new RecordingStream();
+        stream.enable(EVENTO).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENTO, this::registrar);
+        stream.startAsync();
+        log.info("Avisando de hilos virtuales fijados a su portador más de {} ms", threshold.toMillis());
+    }
+
+    void registrar(RecordedEvent evento) {
+        fijados.record(evento.getDuration());
+        List<RecordedFrame> pila = evento.getStackTrace() != null ? evento.getStackTrace().getFrames() : List.of();
+        String origen = origen(pila);
+        if (origenes.add(origen)) {
+            log.warn("Hilo virtual fijado a su portador durante {} ms en {}:\n{}",
+                    evento.getDuration().toMillis(), origen, formatear(pila));
+        } else {
+            log.debug("Hilo virtual fijado a su portador durante {} ms en {}", evento.getDuration().toMillis(), origen);
+        }
+    }
+
+    Set<String> getOrigenes() {
+        return origenes;
+    }
+
+    // El primer marco de la aplicación es el que hay que cambiar; si no hay ninguno, el más alto de la pila
+    private static String origen(List<RecordedFrame> pila) {
+        return pila.stream()
+                .filter(marco -> marco.getMethod().getType().getName().startsWith(PAQUETE))
+                .findFirst()
+                .or(() -> pila.stream().findFirst())
+                .map(VirtualThreadPinningMonitor::marco)
+                .orElse("desconocido");
+    }
+
+    private static String formatear(List<RecordedFrame> pila) {
+        return pila.stream()
+                .map(marco -> "\tat " + marco(marco))
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String marco(RecordedFrame marco) {
+        return marco.getMethod().getType().getName() + "." + marco.getMethod().getName() + ":" + marco.getLineNumber();
+    }
+
+    @Override
+    public void destroy() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
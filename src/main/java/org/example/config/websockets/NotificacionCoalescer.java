@@ -0,0 +1,36 @@
+package org.example.config.websockets;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Acumula las notificaciones de una ventana quedándose solo con la última de cada álbum. Se guardan todos los
+// destinos por los que pasó el álbum para que, si cambia de género o artista dentro de la ventana, también se
+// entere quien estaba suscrito al valor anterior.
+class NotificacionCoalescer {
+    record Pendiente(String message, Set<NotificacionDestino> destinos) {
+    }
+
+    private Map<Long, Pendiente> pendientes = new LinkedHashMap<>();
+
+    // Devuelve true si la notificación sustituye a otra pendiente del mismo álbum
+    synchronized boolean agregar(String message, NotificacionDestino destino) {
+        var anterior = pendientes.remove(destino.albumId());
+        Set<NotificacionDestino> destinos = anterior == null ? new HashSet<>() : anterior.destinos();
+        destinos.add(destino);
+        pendientes.put(destino.albumId(), new Pendiente(message, destinos));
+        return anterior != null;
+    }
+
+    synchronized List<Pendiente> vaciar() {
+        if (pendientes.isEmpty()) {
+            return List.of();
+        }
+        var resultado = new ArrayList<>(pendientes.values());
+        pendientes = new LinkedHashMap<>();
+        return resultado;
+    }
+}
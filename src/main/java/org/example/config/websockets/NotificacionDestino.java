@@ -0,0 +1,9 @@
+package org.example.config.websockets;
+
+// Datos del evento que se usan para elegir a qué sesiones se envía
+public record NotificacionDestino(
+        Long albumId,
+        String genero,
+        Long artistaId
+) {
+}
@@ -0,0 +1,60 @@
+package org.example.config.websockets;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+// Últimas notificaciones enviadas, en un buffer circular de tamaño fijo, para que un cliente que se reconecta
+// pueda pedir solo lo que se perdió. Si lo que falta ya se ha sobrescrito tendrá que volver a listar.
+// Las secuencias vuelven a empezar en 1 con cada arranque, así que solo tienen sentido junto a la época, un id
+// que cambia con cada instancia del buffer.
+class NotificacionReplay {
+    record Entrada(long secuencia, String message, NotificacionDestino destino) {
+    }
+
+    private final Entrada[] entradas;
+    private final String epoca = UUID.randomUUID().toString();
+    private long ultima;
+
+    NotificacionReplay(int capacidad) {
+        this.entradas = new Entrada[capacidad];
+    }
+
+    String epoca() {
+        return epoca;
+    }
+
+    synchronized long siguiente() {
+        return ultima + 1;
+    }
+
+    synchronized void agregar(long secuencia, String message, NotificacionDestino destino) {
+        entradas[(int) (secuencia % entradas.length)] = new Entrada(secuencia, message, destino);
+        ultima = secuencia;
+    }
+
+    synchronized long ultima() {
+        return ultima;
+    }
+
+    // Las entradas posteriores a la secuencia indicada, o vacío si alguna ya no está en el buffer. Una época
+    // distinta (o ninguna) indica que la secuencia es de antes de un reinicio del servidor y también obliga a
+    // volver a listar, aunque el número coincida con alguno de los publicados después.
+    synchronized Optional<List<Entrada>> desde(String epoca, long secuencia) {
+        if (!this.epoca.equals(epoca)) {
+            return Optional.empty();
+        }
+        if (secuencia == ultima) {
+            return Optional.of(List.of());
+        }
+        if (secuencia < 0 || secuencia > ultima || ultima - secuencia > entradas.length) {
+            return Optional.empty();
+        }
+        List<Entrada> resultado = new ArrayList<>((int) (ultima - secuencia));
+        for (long s = secuencia + 1; s <= ultima; s++) {
+            resultado.add(entradas[(int) (s % entradas.length)]);
+        }
+        return Optional.of(resultado);
+    }
+}
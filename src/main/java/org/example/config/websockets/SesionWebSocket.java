@@ -0,0 +1,107 @@
+package org.example.config.websockets;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Cola de salida de una sesión. Quien publica solo encola y vuelve; un único hilo por sesión vacía la cola,
+// de modo que un cliente lento no retrasa al resto. Si el cliente acumula más bytes de los permitidos o lleva
+// demasiado tiempo bloqueado en un envío, se cierra la sesión.
+@Slf4j
+class SesionWebSocket {
+    private final WebSocketSession session;
+    private final Executor executor;
+    private final int bufferSizeLimit;
+    private final long sendTimeLimitNanos;
+
+    private final Queue<TextMessage> pendientes = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger bytesPendientes = new AtomicInteger();
+    private final AtomicBoolean enviando = new AtomicBoolean();
+    private volatile long inicioEnvio;
+    private volatile boolean lote;
+
+    SesionWebSocket(WebSocketSession session, Executor executor, int bufferSizeLimit, long sendTimeLimitMillis) {
+        this.session = session;
+        this.executor = executor;
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.sendTimeLimitNanos = sendTimeLimitMillis * 1_000_000;
+    }
+
+    WebSocketSession getSession() {
+        return session;
+    }
+
+    boolean isLote() {
+        return lote;
+    }
+
+    void setLote(boolean lote) {
+        this.lote = lote;
+    }
+
+    // Devuelve false si la sesión se ha cerrado por ir demasiado retrasada
+    boolean enviar(TextMessage message) {
+        if (!session.isOpen()) {
+            return true;
+        }
+        long inicio = inicioEnvio;
+        if (inicio != 0 && System.nanoTime() - inicio > sendTimeLimitNanos) {
+            cerrar("envío bloqueado más de " + sendTimeLimitNanos / 1_000_000 + " ms");
+            return false;
+        }
+        if (bytesPendientes.addAndGet(message.getPayloadLength()) > bufferSizeLimit) {
+            bytesPendientes.addAndGet(-message.getPayloadLength());
+            cerrar("más de " + bufferSizeLimit + " bytes pendientes");
+            return false;
+        }
+        pendientes.add(message);
+        if (enviando.compareAndSet(false, true)) {
+            executor.execute(this::drenar);
+        }
+        return true;
+    }
+
+    private void drenar() {
+        while (true) {
+            TextMessage message = pendientes.poll();
+            if (message == null) {
+                enviando.set(false);
+                // Otro hilo pudo encolar justo después del poll sin lanzar el drenado
+                if (pendientes.isEmpty() || !enviando.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            inicioEnvio = System.nanoTime();
+            try {
+                if (session.isOpen()) {
+                    session.sendMessage(message);
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.info("Error enviando a la sesión {}: {}", session.getId(), e.getMessage());
+                cerrar("error de envío");
+            } finally {
+                inicioEnvio = 0;
+                bytesPendientes.addAndGet(-message.getPayloadLength());
+            }
+        }
+    }
+
+    private void cerrar(String motivo) {
+        log.warn("Se expulsa la sesión {}: {}", session.getId(), motivo);
+        pendientes.clear();
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            log.debug("Error cerrando la sesión {}", session.getId(), e);
+        }
+    }
+}
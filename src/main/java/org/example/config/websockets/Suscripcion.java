@@ -0,0 +1,40 @@
+package org.example.config.websockets;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.Set;
+
+// Mensaje que envía el cliente para recibir solo los cambios que le interesan, p.ej.
+// {"generos":["Rock"],"artistas":[1],"albumes":[5]}. Basta con que el evento cumpla uno de los filtros;
+// sin ningún filtro se reciben todos los eventos. Cada evento llega en su propio mensaje salvo que se pida
+// "lote":true, con el que se agrupan en un array por ventana. Al reconectar, "desde" y "epoca" indican la última secuencia
+// recibida y la época que venía con ella para que se reenvíe solo lo que falta.
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record Suscripcion(
+        Set<String> generos,
+        Set<Long> artistas,
+        Set<Long> albumes,
+        Boolean lote,
+        Long desde,
+        String epoca
+) {
+    public static final Suscripcion TODOS = new Suscripcion(null, null, null, null, null, null);
+
+    public Suscripcion {
+        generos = generos == null ? Set.of() : Set.copyOf(generos);
+        artistas = artistas == null ? Set.of() : Set.copyOf(artistas);
+        albumes = albumes == null ? Set.of() : Set.copyOf(albumes);
+        lote = lote != null && lote;
+    }
+
+    public boolean isTodos() {
+        return generos.isEmpty() && artistas.isEmpty() && albumes.isEmpty();
+    }
+
+    public boolean acepta(NotificacionDestino destino) {
+        return isTodos()
+                || (destino.genero() != null && generos.stream().anyMatch(g -> g.trim().equalsIgnoreCase(destino.genero().trim())))
+                || (destino.artistaId() != null && artistas.contains(destino.artistaId()))
+                || (destino.albumId() != null && albumes.contains(destino.albumId()));
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.config.websockets;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Índice de filtro a sesiones para no recorrer todas las sesiones en cada evento. Las altas y bajas son raras
+// y se serializan; las consultas no toman ningún bloqueo.
+class SuscripcionIndex {
+    private final Set<String> todos = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<String>> porGenero = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> porArtista = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> porAlbum = new ConcurrentHashMap<>();
+    private final Map<String, Suscripcion> suscripciones = new ConcurrentHashMap<>();
+
+    synchronized void suscribir(String sessionId, Suscripcion suscripcion) {
+        eliminar(sessionId);
+        suscripciones.put(sessionId, suscripcion);
+        if (suscripcion.isTodos()) {
+            todos.add(sessionId);
+            return;
+        }
+        suscripcion.generos().forEach(g -> agregar(porGenero, normalizar(g), sessionId));
+        suscripcion.artistas().forEach(a -> agregar(porArtista, a, sessionId));
+        suscripcion.albumes().forEach(a -> agregar(porAlbum, a, sessionId));
+    }
+
+    synchronized void eliminar(String sessionId) {
+        var anterior = suscripciones.remove(sessionId);
+        if (anterior == null) {
+            return;
+        }
+        todos.remove(sessionId);
+        anterior.generos().forEach(g -> quitar(porGenero, normalizar(g), sessionId));
+        anterior.artistas().forEach(a -> quitar(porArtista, a, sessionId));
+        anterior.albumes().forEach(a -> quitar(porAlbum, a, sessionId));
+    }
+
+    Set<String> destinatarios(NotificacionDestino destino) {
+        Set<String> resultado = new HashSet<>(todos);
+        if (destino.genero() != null) {
+            resultado.addAll(porGenero.getOrDefault(normalizar(destino.genero()), Set.of()));
+        }
+        if (destino.artistaId() != null) {
+            resultado.addAll(porArtista.getOrDefault(destino.artistaId(), Set.of()));
+        }
+        if (destino.albumId() != null) {
+            resultado.addAll(porAlbum.getOrDefault(destino.albumId(), Set.of()));
+        }
+        return resultado;
+    }
+
+    private static <K> void agregar(Map<K, Set<String>> indice, K clave, String sessionId) {
+        indice.computeIfAbsent(clave, k -> ConcurrentHashMap.newKeySet()).add(sessionId);
+    }
+
+    private static <K> void quitar(Map<K, Set<String>> indice, K clave, String sessionId) {
+        indice.computeIfPresent(clave, (k, sesiones) -> {
+            sesiones.remove(sessionId);
+            return sesiones.isEmpty() ? null : sesiones;
+        });
+    }
+
+    private static String normalizar(String genero) {
+        return genero.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,5 +1,7 @@
 package org.example.config.websockets;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -7,6 +9,9 @@ import org.springframework.web.socket.config.annotation.EnableWebSocket;
 import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
 import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Configuration
 @EnableWebSocket
 public class WebSocketConfig implements WebSocketConfigurer {
@@ -14,6 +19,26 @@ public class WebSocketConfig implements WebSocketConfigurer {
     @Value("${api.version}")
     private String apiVersion;
 
+    @Value("${websockets.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${websockets.send-time-limit:5000}")
+    private long sendTimeLimit;
+
+    @Value("${websockets.coalesce-window:50}")
+    private long coalesceWindow;
+
+    @Value("${websockets.replay-capacity:10000}")
+    private int replayCapacity;
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public WebSocketConfig(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
         registry.addHandler(webSocketAlbumesHandler(), "/ws/" + apiVersion + "/albumes");
@@ -21,6 +46,14 @@ public class WebSocketConfig implements WebSocketConfigurer {
 
     @Bean
     public WebSocketHandler webSocketAlbumesHandler() {
-        return new WebSocketHandler("Albumes");
+        return new WebSocketHandler("Albumes", sendBufferSizeLimit, sendTimeLimit, coalesceWindow,
+                replayCapacity, senderExecutor("Albumes"), objectMapper, meterRegistry);
+    }
+
+    // Cada sesión con mensajes pendientes ocupa un hilo mientras el cliente los recibe, y un cliente lento lo retiene
+    // hasta send-time-limit. Son hilos virtuales aunque spring.threads.virtual.enabled esté desactivado: con miles
+    // de sesiones serían miles de hilos del sistema
+    private ExecutorService senderExecutor(String entity) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("WebSocketSender-" + entity + "-", 0).factory());
     }
 }
\ No newline at end of file
@@ -1,6 +1,13 @@
 package org.example.config.websockets;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.example.websockets.notifications.models.Notificacion;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.SubProtocolCapable;
@@ -10,61 +17,224 @@ import org.springframework.web.socket.handler.TextWebSocketHandler;
 
 import java.io.IOException;
 import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
-public class WebSocketHandler extends TextWebSocketHandler implements SubProtocolCapable, WebSocketSender {
+public class WebSocketHandler extends TextWebSocketHandler implements SubProtocolCapable, WebSocketSender, DisposableBean {
     private final String entity;
 
-    private final Set<WebSocketSession> sessions = new CopyOnWriteArraySet<>();
+    private final int bufferSizeLimit;
+    private final long sendTimeLimit;
+    private final Counter expulsadas;
+    private final Counter agrupadas;
 
-    public WebSocketHandler(String entity) {
+    private final Map<String, SesionWebSocket> sessions = new ConcurrentHashMap<>();
+    private final SuscripcionIndex suscripciones = new SuscripcionIndex();
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final NotificacionCoalescer coalescer = new NotificacionCoalescer();
+    private final ScheduledExecutorService ventana;
+    private final NotificacionReplay replay;
+    // Asignar la secuencia, guardarla para reenvíos y encolarla en las sesiones debe ser atómico para que cada
+    // sesión reciba las notificaciones en orden de secuencia, también durante una reanudación
+    private final Object envio = new Object();
+
+    // Con coalesceWindow a 0 cada notificación se envía en cuanto llega. El executor lanza el vaciado de la cola de
+    // cada sesión y se cierra con el handler
+    public WebSocketHandler(String entity, int bufferSizeLimit, long sendTimeLimit, long coalesceWindow,
+                            int replayCapacity, ExecutorService executor, ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry) {
         this.entity = entity;
+        this.executor = executor;
+        this.objectMapper = objectMapper;
+        this.replay = new NotificacionReplay(replayCapacity);
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.sendTimeLimit = sendTimeLimit;
+        this.expulsadas = Counter.builder("websockets.sessions.evicted")
+                .description("Sesiones cerradas por no consumir los mensajes a tiempo")
+                .tag("entity", entity)
+                .register(meterRegistry);
+        this.agrupadas = Counter.builder("websockets.notifications.coalesced")
+                .description("Notificaciones sustituidas por otra más reciente del mismo álbum dentro de la ventana")
+                .tag("entity", entity)
+                .register(meterRegistry);
+        Gauge.builder("websockets.sessions", sessions, Map::size)
+                .tag("entity", entity)
+                .register(meterRegistry);
+        if (coalesceWindow > 0) {
+            ventana = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("WebSocketCoalescer-" + entity).daemon().factory());
+            ventana.scheduleAtFixedRate(this::flush, coalesceWindow, coalesceWindow, TimeUnit.MILLISECONDS);
+        } else {
+            ventana = null;
+        }
     }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
         log.info("Conexión establecida con el servidor");
         log.info("Sesión: {}", session);
-        sessions.add(session);
+        SesionWebSocket sesion = new SesionWebSocket(session, executor, bufferSizeLimit, sendTimeLimit);
+        sessions.put(session.getId(), sesion);
+        suscripciones.suscribir(session.getId(), Suscripcion.TODOS);
         TextMessage message = new TextMessage("Updates Web socket: " + entity + " - (App de Albumes)");
         log.info("Servidor envía: {}", message);
-        session.sendMessage(message);
+        sesion.enviar(message);
     }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
         log.info("Conexión cerrada con el servidor: {}", status);
-        sessions.remove(session);
+        sessions.remove(session.getId());
+        suscripciones.eliminar(session.getId());
     }
 
     @Override
     public void sendMessage(String message) throws IOException {
         log.info("Enviar mensaje de cambios en la entidad: {} : {} ", entity, message);
-        for (WebSocketSession session : sessions) {
-            if (session.isOpen()) {
-                log.info("Servidor WS envía: {}", message);
-                session.sendMessage(new TextMessage(message));
+        broadcast(new TextMessage(message));
+    }
+
+    @Override
+    public void sendMessage(Notificacion<?> notificacion, NotificacionDestino destino) throws IOException {
+        synchronized (envio) {
+            long secuencia = replay.siguiente();
+            notificacion.setSecuencia(secuencia);
+            notificacion.setEpoca(replay.epoca());
+            String message = objectMapper.writeValueAsString(notificacion);
+            replay.agregar(secuencia, message, destino);
+            log.info("Enviar mensaje de cambios en la entidad: {} : {} ", entity, message);
+            TextMessage textMessage = new TextMessage(message);
+            for (String sessionId : suscripciones.destinatarios(destino)) {
+                SesionWebSocket sesion = sessions.get(sessionId);
+                if (sesion != null && (ventana == null || !sesion.isLote())) {
+                    enviar(sesion, textMessage);
+                }
+            }
+            if (ventana != null && coalescer.agregar(message, destino)) {
+                agrupadas.increment();
+            }
+        }
+    }
+
+    // Envía lo acumulado en la ventana como un array JSON. Las sesiones que reciben los mismos eventos
+    // comparten el mismo mensaje, así que con pocas suscripciones distintas se serializa muy pocas veces.
+    void flush() {
+        try {
+            synchronized (envio) {
+                List<NotificacionCoalescer.Pendiente> pendientes = coalescer.vaciar();
+                if (pendientes.isEmpty()) {
+                    return;
+                }
+                Map<String, BitSet> porSesion = new HashMap<>();
+                for (int i = 0; i < pendientes.size(); i++) {
+                    Set<String> destinatarios = new HashSet<>();
+                    for (NotificacionDestino destino : pendientes.get(i).destinos()) {
+                        destinatarios.addAll(suscripciones.destinatarios(destino));
+                    }
+                    for (String sessionId : destinatarios) {
+                        porSesion.computeIfAbsent(sessionId, id -> new BitSet()).set(i);
+                    }
+                }
+                Map<BitSet, TextMessage> mensajes = new HashMap<>();
+                porSesion.forEach((sessionId, eventos) -> {
+                    SesionWebSocket sesion = sessions.get(sessionId);
+                    if (sesion != null && sesion.isLote()) {
+                        enviar(sesion, mensajes.computeIfAbsent(eventos, e -> lote(pendientes, e)));
+                    }
+                });
             }
+        } catch (RuntimeException e) {
+            log.error("Error enviando el lote de notificaciones", e);
+        }
+    }
+
+    // Reenvía lo publicado después de la secuencia que indica el cliente, o le pide que vuelva a listar si ya
+    // no está en el buffer o es de otra época (antes de reiniciarse el servidor). Puede repetir alguna notificación pendiente de la ventana: el cliente debe descartar
+    // las secuencias que ya tiene.
+    private void reanudar(SesionWebSocket sesion, Suscripcion suscripcion) {
+        Optional<List<NotificacionReplay.Entrada>> perdidas = replay.desde(suscripcion.epoca(), suscripcion.desde());
+        if (perdidas.isEmpty()) {
+            log.info("Sesión {} pide la secuencia {} de la época {} que ya no está disponible",
+                    sesion.getSession().getId(), suscripcion.desde(), suscripcion.epoca());
+            enviar(sesion, new TextMessage("{\"type\":\"RESYNC\",\"secuencia\":" + replay.ultima()
+                    + ",\"epoca\":\"" + replay.epoca() + "\"}"));
+            return;
+        }
+        List<String> mensajes = perdidas.get().stream()
+                .filter(entrada -> suscripcion.acepta(entrada.destino()))
+                .map(NotificacionReplay.Entrada::message)
+                .toList();
+        if (mensajes.isEmpty()) {
+            return;
         }
+        if (sesion.isLote()) {
+            enviar(sesion, new TextMessage("[" + String.join(",", mensajes) + "]"));
+        } else {
+            mensajes.forEach(message -> enviar(sesion, new TextMessage(message)));
+        }
+    }
+
+    private static TextMessage lote(List<NotificacionCoalescer.Pendiente> pendientes, BitSet eventos) {
+        StringJoiner array = new StringJoiner(",", "[", "]");
+        eventos.stream().forEach(i -> array.add(pendientes.get(i).message()));
+        return new TextMessage(array.toString());
     }
 
     @Scheduled(fixedRate = 1000)
     @Override
     public void sendPeriodicMessages() throws IOException {
-        for (WebSocketSession session : sessions) {
-            if (session.isOpen()) {
-                String broadcast = "server periodic message " + LocalTime.now();
-                log.info("Server sends: {}", broadcast);
-                session.sendMessage(new TextMessage(broadcast));
-            }
+        String broadcast = "server periodic message " + LocalTime.now();
+        log.debug("Server sends: {}", broadcast);
+        broadcast(new TextMessage(broadcast));
+    }
+
+    // El mensaje se construye una sola vez y cada sesión lo envía desde su propia cola
+    private void broadcast(TextMessage message) {
+        for (SesionWebSocket sesion : sessions.values()) {
+            enviar(sesion, message);
+        }
+    }
+
+    private void enviar(SesionWebSocket sesion, TextMessage message) {
+        if (!sesion.enviar(message) && sessions.remove(sesion.getSession().getId()) != null) {
+            suscripciones.eliminar(sesion.getSession().getId());
+            expulsadas.increment();
         }
     }
 
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        SesionWebSocket sesion = sessions.get(session.getId());
+        if (sesion == null) {
+            return;
+        }
+        try {
+            Suscripcion suscripcion = objectMapper.readValue(message.getPayload(), Suscripcion.class);
+            synchronized (envio) {
+                suscripciones.suscribir(session.getId(), suscripcion);
+                sesion.setLote(suscripcion.lote());
+                if (suscripcion.desde() != null) {
+                    reanudar(sesion, suscripcion);
+                }
+            }
+            log.info("Sesión {} suscrita a {}", session.getId(), suscripcion);
+        } catch (JsonProcessingException e) {
+            log.info("Suscripción no válida de la sesión {}: {}", session.getId(), e.getOriginalMessage());
+            sesion.enviar(new TextMessage("{\"error\":\"Suscripción no válida\"}"));
+        }
     }
 
     @Override
@@ -72,6 +242,18 @@ public class WebSocketHandler extends TextWebSocketHandler implements SubProtoco
         log.info("Error de transporte con el servidor: {}", exception.getMessage());
     }
 
+    @Override
+    public void destroy() {
+        if (ventana != null) {
+            ventana.shutdown();
+        }
+        executor.shutdown();
+    }
+
+    String epoca() {
+        return replay.epoca();
+    }
+
     @Override
     public List<String> getSubProtocols() {
         return List.of("subprotocol.demo.websocket");
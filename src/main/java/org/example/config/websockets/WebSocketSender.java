@@ -1,8 +1,11 @@
 package org.example.config.websockets;
 
+import org.example.websockets.notifications.models.Notificacion;
+
 import java.io.IOException;
 
 public interface WebSocketSender {
     void sendMessage(String message) throws IOException;
+    void sendMessage(Notificacion<?> notificacion, NotificacionDestino destino) throws IOException;
     void sendPeriodicMessages() throws IOException;
-}
\ No newline at end of file
+}
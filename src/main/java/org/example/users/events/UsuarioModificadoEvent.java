@@ -0,0 +1,11 @@
+package org.example.users.events;
+
+import java.util.Set;
+
+// Se publica cuando un usuario cambia o se borra (también el borrado lógico). Lleva los username afectados,
+// el anterior y el nuevo si se ha renombrado, para invalidar lo que se tenga cacheado de ellos.
+public record UsuarioModificadoEvent(
+        Long id,
+        Set<String> usernames
+) {
+}
@@ -25,7 +25,8 @@ import java.util.stream.Collectors;
 @Table(name = "USUARIOS")
 public class User implements UserDetails {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuarios_seq")
+    @SequenceGenerator(name = "usuarios_seq", sequenceName = "USUARIOS_SEQ", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "nombre no puede estar vacío")
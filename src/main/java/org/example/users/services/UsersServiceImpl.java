@@ -2,6 +2,7 @@ package org.example.users.services;
 
 import org.example.albumes.repositories.AlbumRepository;
 import org.example.users.dto.UserInfoResponse;
+import org.example.users.events.UsuarioModificadoEvent;
 import org.example.users.dto.UserRequest;
 import org.example.users.dto.UserResponse;
 import org.example.users.exceptions.UserNameOrEmailExists;
@@ -16,6 +17,7 @@ import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -23,6 +25,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Slf4j
@@ -33,6 +36,8 @@ public class UsersServiceImpl implements UsersService {
     private final UserRepository usersRepository;
     private final UsersMapper usersMapper;
     private final AlbumRepository albumRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
     @Override
     public Page<UserResponse> findAll(Optional<String> username, Optional<String> email, Optional<Boolean> isDeleted, Pageable pageable) {
         log.info("Buscando todos los usuarios con username: {} y borrados: {}", username, isDeleted);
@@ -58,7 +63,7 @@ public class UsersServiceImpl implements UsersService {
     }
 
     @Override
-    @Cacheable(key = "#id")
+    @Cacheable(key = "#id", sync = true)
     public UserInfoResponse findById(Long id) {
         log.info("Buscando usuario por id: {}", id);
         var user = usersRepository.findById(id).orElseThrow(() -> new UserNotFound(id));
@@ -78,18 +83,22 @@ public class UsersServiceImpl implements UsersService {
     }
 
     @Override
+    @Transactional
     @CachePut(key = "#result.id")
     public UserResponse update(Long id, UserRequest userRequest) {
         log.info("Actualizando usuario: {}", userRequest);
-        usersRepository.findById(id).orElseThrow(() -> new UserNotFound(id));
+        var userActual = usersRepository.findById(id).orElseThrow(() -> new UserNotFound(id));
         usersRepository.findByUsernameEqualsIgnoreCaseOrEmailEqualsIgnoreCase(userRequest.getUsername(), userRequest.getEmail())
                 .ifPresent(u -> {
                     if (!u.getId().equals(id)) {
-                        System.out.println("usuario encontrado: " + u.getId() + " Mi id: " + id);
+                        log.debug("Ya existe el usuario {} con ese username o email; se actualiza el {}", u.getId(), id);
                         throw new UserNameOrEmailExists("Ya existe un usuario con ese username o email");
                     }
                 });
-        return usersMapper.toUserResponse(usersRepository.save(usersMapper.toUser(userRequest, id)));
+        var usernameAnterior = userActual.getUsername();
+        var userUpdated = usersRepository.save(usersMapper.toUser(userRequest, id));
+        eventPublisher.publishEvent(new UsuarioModificadoEvent(id, Set.copyOf(List.of(usernameAnterior, userUpdated.getUsername()))));
+        return usersMapper.toUserResponse(userUpdated);
     }
 
     @Override
@@ -105,6 +114,7 @@ public class UsersServiceImpl implements UsersService {
             log.info("Borrado físico de usuario por id: {}", id);
             usersRepository.delete(user);
         }
+        eventPublisher.publishEvent(new UsuarioModificadoEvent(id, Set.of(user.getUsername())));
     }
 
     public List<User> findAllActiveUsers() {
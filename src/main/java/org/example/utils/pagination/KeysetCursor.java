@@ -0,0 +1,49 @@
+package org.example.utils.pagination;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+public record KeysetCursor(
+        String sortBy,
+        String direction,
+        Long id,
+        String value
+) {
+    private static final String SEPARATOR = "\n";
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, sortBy, direction, id.toString(), value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // El valor va al final porque es el único campo que puede contener el separador
+            String[] parts = raw.split(SEPARATOR, 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Cursor " + cursor + " no válido");
+            }
+            return new KeysetCursor(parts[0], parts[1], Long.valueOf(parts[2]), parts[3]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor " + cursor + " no válido", e);
+        }
+    }
+
+    public static Optional<KeysetCursor> next(Window<?> window, String sortBy, String direction) {
+        if (window.isEmpty() || !window.hasNext()) {
+            return Optional.empty();
+        }
+        var keys = ((KeysetScrollPosition) window.positionAt(window.size() - 1)).getKeys();
+        return Optional.of(new KeysetCursor(
+                sortBy,
+                direction,
+                ((Number) keys.get("id")).longValue(),
+                String.valueOf(keys.get(sortBy))
+        ));
+    }
+}
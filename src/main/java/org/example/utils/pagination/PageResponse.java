@@ -1,6 +1,7 @@
 package org.example.utils.pagination;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Window;
 
 import java.util.List;
 
@@ -15,7 +16,8 @@ public record PageResponse<T>(
         boolean first,
         boolean last,
         String sortBy,
-        String direction
+        String direction,
+        String nextCursor
 ) {
     public static <T> PageResponse<T> of(Page<T> page, String sortBy, String direction) {
         return new PageResponse<>(
@@ -29,7 +31,26 @@ public record PageResponse<T>(
                 page.isFirst(),
                 page.isLast(),
                 sortBy,
-                direction
+                direction,
+                null
         );
     }
-}
\ No newline at end of file
+
+    // En modo cursor no se ejecuta el COUNT, por lo que el total de páginas y elementos es desconocido (-1)
+    public static <T> PageResponse<T> of(Window<T> window, int size, boolean first, String sortBy, String direction, String nextCursor) {
+        return new PageResponse<>(
+                window.getContent(),
+                -1,
+                -1,
+                size,
+                0,
+                window.size(),
+                window.isEmpty(),
+                first,
+                !window.hasNext(),
+                sortBy,
+                direction,
+                nextCursor
+        );
+    }
+}
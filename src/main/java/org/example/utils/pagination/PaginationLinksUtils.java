@@ -37,6 +37,32 @@ public class PaginationLinksUtils {
         return linkHeader.toString();
     }
 
+    public String createLinkHeader(String nextCursor, int size, boolean first, UriComponentsBuilder uriBuilder) {
+        final StringBuilder linkHeader = new StringBuilder();
+
+        if (nextCursor != null) {
+            String uri = constructCursorUri(nextCursor, size, uriBuilder);
+            linkHeader.append(buildLinkHeader(uri, "next"));
+        }
+
+        if (!first) {
+            String uri = constructCursorUri("", size, uriBuilder);
+            appendCommaIfNecessary(linkHeader);
+            linkHeader.append(buildLinkHeader(uri, "first"));
+        }
+
+        return linkHeader.toString();
+    }
+
+    private String constructCursorUri(String cursor, int size, UriComponentsBuilder uriBuilder) {
+        return uriBuilder.replaceQueryParam("after", cursor)
+                .replaceQueryParam("page")
+                .replaceQueryParam("size", size)
+                .build()
+                .encode()
+                .toUriString();
+    }
+
     private String constructUri(int newPageNumber, int size, UriComponentsBuilder uriBuilder) {
         return uriBuilder.replaceQueryParam("page", newPageNumber)
                 .replaceQueryParam("size", size)
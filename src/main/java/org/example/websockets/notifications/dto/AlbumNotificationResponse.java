@@ -18,4 +18,6 @@ public class AlbumNotificationResponse {
     private String createdAt;
     private String updatedAt;
     private Boolean isDeleted;
+    // Versión del álbum que describe la notificación; el cliente ignora las que no sean mayores que la que tiene
+    private Long version;
 }
\ No newline at end of file
@@ -2,6 +2,8 @@ package org.example.websockets.notifications.mappers;
 
 import org.example.albumes.models.Album;
 import org.example.websockets.notifications.dto.AlbumNotificationResponse;
+import org.example.websockets.notifications.models.AlbumOutbox;
+import org.example.websockets.notifications.models.Notificacion;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -16,6 +18,39 @@ public class AlbumNotificationMapper {
                 .createdAt(album.getCreatedAt().toString())
                 .updatedAt(album.getUpdatedAt().toString())
                 .isDeleted(album.getIsDeleted())
+                .version(album.getVersion())
                 .build();
     }
-}
\ No newline at end of file
+
+    public AlbumNotificationResponse toAlbumNotificationDto(AlbumOutbox outbox) {
+        return AlbumNotificationResponse.builder()
+                .id(outbox.getAlbumId())
+                .titulo(outbox.getTitulo())
+                .artista(outbox.getArtista())
+                .imagen(outbox.getPortada())
+                .precio(outbox.getPrecio())
+                .createdAt(outbox.getAlbumCreatedAt().toString())
+                .updatedAt(outbox.getAlbumUpdatedAt().toString())
+                .isDeleted(outbox.getIsDeleted())
+                .version(outbox.getAlbumVersion())
+                .build();
+    }
+
+    public AlbumOutbox toAlbumOutbox(Notificacion.Tipo tipo, Album album) {
+        return AlbumOutbox.builder()
+                .tipo(tipo)
+                .albumId(album.getId())
+                // Un borrado va detrás de la última versión guardada, que es la que tiene el álbum borrado
+                .albumVersion(tipo == Notificacion.Tipo.DELETE ? album.getVersion() + 1 : album.getVersion())
+                .titulo(album.getTitulo())
+                .genero(album.getGenero())
+                .artistaId(album.getArtista().getId())
+                .artista(album.getArtista().getNombre())
+                .portada(album.getPortada())
+                .precio(album.getPrecio())
+                .albumCreatedAt(album.getCreatedAt())
+                .albumUpdatedAt(album.getUpdatedAt())
+                .isDeleted(album.getIsDeleted())
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.websockets.notifications.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Cambio de un álbum pendiente de notificar. Se guarda en la misma transacción que el álbum y lo envía
+// AlbumOutboxRelay; lleva una copia de los datos porque tras un DELETE el álbum ya no existe.
+@Builder
+@ToString
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "ALBUMES_OUTBOX")
+public class AlbumOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "albumes_outbox_seq")
+    @SequenceGenerator(name = "albumes_outbox_seq", sequenceName = "ALBUMES_OUTBOX_SEQ", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Notificacion.Tipo tipo;
+
+    @Column(nullable = false)
+    private Long albumId;
+
+    // Versión del álbum tras este cambio. Con albumId identifica el evento aunque se reenvíe y ordena los
+    // cambios de un mismo álbum, que por id no lo están: los ids se reservan al persistir, no al hacer commit
+    @Column(nullable = false)
+    private Long albumVersion;
+
+    private String titulo;
+    private String genero;
+    private Long artistaId;
+    private String artista;
+    private String portada;
+    private Double precio;
+    private LocalDateTime albumCreatedAt;
+    private LocalDateTime albumUpdatedAt;
+    private Boolean isDeleted;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -12,6 +12,14 @@ public class Notificacion<T> {
     private Tipo type;
     private T data;
     private String createdAt;
+    // Las asigna el WebSocketHandler al enviarla; los clientes las usan para reanudar tras reconectar. La
+    // secuencia se reinicia con el servidor y la época cambia entonces
+    private Long secuencia;
+    private String epoca;
+
+    public Notificacion(String entity, Tipo type, T data, String createdAt) {
+        this(entity, type, data, createdAt, null, null);
+    }
 
     public enum Tipo {CREATE, UPDATE, DELETE}
 }
\ No newline at end of file
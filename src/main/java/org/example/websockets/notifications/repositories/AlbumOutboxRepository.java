@@ -0,0 +1,26 @@
+package org.example.websockets.notifications.repositories;
+
+import jakarta.transaction.Transactional;
+import org.example.websockets.notifications.models.AlbumOutbox;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AlbumOutboxRepository extends JpaRepository<AlbumOutbox, Long> {
+    List<AlbumOutbox> findByOrderByIdAsc(Limit limit);
+
+    @Query("SELECT o.id FROM AlbumOutbox o ORDER BY o.id")
+    List<Long> findIdsByOrderByIdAsc(Limit limit);
+
+    // Borra los cambios de un álbum que tienen otro posterior pendiente, que ya lleva su estado final
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM AlbumOutbox o WHERE EXISTS " +
+            "(SELECT 1 FROM AlbumOutbox n WHERE n.albumId = o.albumId AND n.albumVersion > o.albumVersion)")
+    int deleteSuperados();
+}
@@ -0,0 +1,203 @@
+package org.example.websockets.notifications.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.websockets.NotificacionDestino;
+import org.example.config.websockets.WebSocketHandler;
+import org.example.websockets.notifications.mappers.AlbumNotificationMapper;
+import org.example.websockets.notifications.models.AlbumOutbox;
+import org.example.websockets.notifications.models.Notificacion;
+import org.example.websockets.notifications.repositories.AlbumOutboxRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Envía por WebSocket los cambios guardados en ALBUMES_OUTBOX, por lotes, y los borra una vez entregados al
+// handler. Si el proceso cae entre el envío y el borrado el lote se repite al arrancar, por lo que la entrega es al
+// menos una vez: cada notificación lleva el id y la versión del álbum para que el cliente descarte repetidas (la
+// secuencia no sirve, se asigna de nuevo en cada envío). Las filas se leen por id, que es el orden en que se
+// persistieron y no el del commit; el orden de un álbum lo da su versión y el relay no envía una versión que no
+// sea mayor que la última que envió de ese álbum. Un único hilo lee la tabla: con varias instancias habría que
+// repartirla.
+// La tabla está acotada a maxDepth filas: si se pasa, primero se quitan los cambios de un álbum que tienen otro
+// posterior pendiente (el último gana, como en la ventana del WebSocketHandler) y, si aún sobran, los más antiguos.
+@Slf4j
+@Component
+public class AlbumOutboxRelay implements DisposableBean {
+    // Álbumes de los que se recuerda la última versión enviada
+    private static final long VERSIONES_RECORDADAS = 10_000;
+
+    private final AlbumOutboxRepository albumOutboxRepository;
+    private final AlbumNotificationMapper albumNotificationMapper;
+    private final WebSocketHandler webSocketHandler;
+    private final int batchSize;
+    private final long pollInterval;
+    private final long maxDepth;
+
+    private final Semaphore aviso = new Semaphore(0);
+    private final AtomicLong pendientes = new AtomicLong();
+    private final Cache<Long, Long> versiones = Caffeine.newBuilder().maximumSize(VERSIONES_RECORDADAS).build();
+    private final Counter enviadas;
+    private final Counter agrupadas;
+    private final Counter descartadas;
+    private final Counter obsoletas;
+    private final Timer retraso;
+    private final Timer latencia;
+    private volatile Thread relay;
+
+    public AlbumOutboxRelay(AlbumOutboxRepository albumOutboxRepository,
+                            AlbumNotificationMapper albumNotificationMapper,
+                            WebSocketHandler webSocketHandler,
+                            @Value("${websockets.outbox.batch-size:100}") int batchSize,
+                            @Value("${websockets.outbox.poll-interval:1000}") long pollInterval,
+                            @Value("${websockets.outbox.max-depth:100000}") long maxDepth,
+                            MeterRegistry meterRegistry) {
+        this.albumOutboxRepository = albumOutboxRepository;
+        this.albumNotificationMapper = albumNotificationMapper;
+        this.webSocketHandler = webSocketHandler;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.maxDepth = maxDepth;
+        this.enviadas = Counter.builder("websockets.outbox.relayed")
+                .description("Notificaciones enviadas desde el outbox")
+                .register(meterRegistry);
+        this.agrupadas = Counter.builder("websockets.outbox.coalesced")
+                .description("Cambios borrados sin enviar por haber otro posterior del mismo álbum con el outbox lleno")
+                .register(meterRegistry);
+        this.descartadas = Counter.builder("websockets.outbox.dropped")
+                .description("Cambios borrados sin enviar por superar el outbox su tamaño máximo")
+                .register(meterRegistry);
+        this.obsoletas = Counter.builder("websockets.outbox.stale")
+                .description("Cambios no enviados porque ya se envió una versión posterior del mismo álbum")
+                .register(meterRegistry);
+        this.retraso = Timer.builder("websockets.outbox.lag")
+                .description("Tiempo desde que se guarda el cambio hasta que se envía")
+                .register(meterRegistry);
+        this.latencia = Timer.builder("websockets.outbox.relay.latency")
+                .description("Tiempo en entregar un lote al handler y borrarlo del outbox")
+                .register(meterRegistry);
+        Gauge.builder("websockets.outbox.depth", pendientes, AtomicLong::get)
+                .description("Cambios pendientes de enviar en el outbox")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void arrancar() {
+        relay = Thread.ofVirtual().name("AlbumOutboxRelay").start(this::ejecutar);
+    }
+
+    // Despierta al relay en cuanto se confirma la transacción en curso; si no hay transacción, inmediatamente
+    public void avisar() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aviso.release();
+                }
+            });
+        } else {
+            aviso.release();
+        }
+    }
+
+    private void ejecutar() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                acotar();
+                while (enviarLote() == batchSize) {
+                    // Mientras haya lotes completos se sigue sin esperar
+                }
+                aviso.tryAcquire(pollInterval, TimeUnit.MILLISECONDS);
+                aviso.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Error enviando las notificaciones del outbox", e);
+                try {
+                    Thread.sleep(pollInterval);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    // Cuenta lo pendiente para la métrica y, si pasa de maxDepth, recorta la tabla antes de enviar
+    void acotar() {
+        long total = albumOutboxRepository.count();
+        if (total > maxDepth) {
+            int superados = albumOutboxRepository.deleteSuperados();
+            agrupadas.increment(superados);
+            total -= superados;
+        }
+        if (total > maxDepth) {
+            List<Long> ids = albumOutboxRepository.findIdsByOrderByIdAsc(Limit.of((int) (total - maxDepth)));
+            albumOutboxRepository.deleteAllByIdInBatch(ids);
+            descartadas.increment(ids.size());
+            total -= ids.size();
+            log.warn("Outbox de álbumes lleno, se descartan los {} cambios más antiguos", ids.size());
+        }
+        pendientes.set(total);
+    }
+
+    int enviarLote() {
+        List<AlbumOutbox> lote = albumOutboxRepository.findByOrderByIdAsc(Limit.of(batchSize));
+        if (lote.isEmpty()) {
+            pendientes.set(0);
+            return 0;
+        }
+        long inicio = System.nanoTime();
+        for (AlbumOutbox cambio : lote) {
+            Long enviada = versiones.getIfPresent(cambio.getAlbumId());
+            if (enviada != null && cambio.getAlbumVersion() <= enviada) {
+                log.debug("Se descarta la versión {} del álbum {}: ya se envió la {}", cambio.getAlbumVersion(), cambio.getAlbumId(), enviada);
+                obsoletas.increment();
+                continue;
+            }
+            var notificacion = new Notificacion<>(
+                    "ALBUMES",
+                    cambio.getTipo(),
+                    albumNotificationMapper.toAlbumNotificationDto(cambio),
+                    cambio.getCreatedAt().toString()
+            );
+            try {
+                webSocketHandler.sendMessage(notificacion, new NotificacionDestino(cambio.getAlbumId(), cambio.getGenero(), cambio.getArtistaId()));
+            } catch (IOException e) {
+                // No se puede serializar: reintentarlo no cambiaría nada, así que se descarta
+                log.error("Error enviando la notificación {} del outbox", cambio.getId(), e);
+            }
+            versiones.put(cambio.getAlbumId(), cambio.getAlbumVersion());
+            retraso.record(Duration.between(cambio.getCreatedAt(), LocalDateTime.now()));
+        }
+        albumOutboxRepository.deleteAllByIdInBatch(lote.stream().map(AlbumOutbox::getId).toList());
+        latencia.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        enviadas.increment(lote.size());
+        pendientes.updateAndGet(n -> Math.max(0, n - lote.size()));
+        return lote.size();
+    }
+
+    @Override
+    public void destroy() {
+        if (relay != null) {
+            relay.interrupt();
+        }
+    }
+}
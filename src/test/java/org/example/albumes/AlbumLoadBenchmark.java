@@ -0,0 +1,209 @@
+package org.example.albumes;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.example.Application;
+import org.example.albumes.models.Album;
+import org.example.albumes.repositories.AlbumRepository;
+import org.example.artistas.models.Artista;
+import org.example.artistas.repositories.ArtistaRepository;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URLClassLoader;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Carga sobre los endpoints de álbumes con hilos de plataforma y con hilos virtuales (spring.threads.virtual.enabled).
+// Cada modo arranca la aplicación en su propia JVM con los mismos álbumes y sin límites de peticiones, concurrencia
+// ni bulkheads, para medir solo el modelo de hilos. Por cada número de clientes, todos piden a la vez durante
+// "duracion" segundos (90% GET /albumes/{id}, 10% listado paginado) y se informa de peticiones por segundo, p50,
+// p99 y errores; lo que ocurre durante el calentamiento no se cuenta. El log de cada servidor queda en
+// target/album-load-<modo>.log, con los avisos de hilos virtuales fijados a su portador si los hay.
+// Se lanza desde el IDE con el main, o con: mvn test-compile exec:java -Dexec.classpathScope=test
+//   -Dexec.mainClass=org.example.albumes.AlbumLoadBenchmark [-Dclientes=1000,2500,5000,10000] [-Dduracion=30]
+// Cliente y servidor comparten máquina, así que las cifras solo sirven para comparar los modos entre sí.
+public class AlbumLoadBenchmark {
+    private static final String[] MODOS = System.getProperty("modos", "platform,virtual").split(",");
+    private static final int[] CLIENTES = Arrays.stream(System.getProperty("clientes", "1000,2500,5000,10000").split(","))
+            .mapToInt(Integer::parseInt).toArray();
+    private static final int DURACION = Integer.getInteger("duracion", 30);
+    private static final int CALENTAMIENTO = Integer.getInteger("calentamiento", 10);
+    private static final int ALBUMES = Integer.getInteger("albumes", 1000);
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    public static void main(String[] args) throws Exception {
+        List<String> resultados = new ArrayList<>();
+        resultados.add(String.format("%-9s %9s %14s %9s %9s %9s %9s", "modo", "clientes", "peticiones/s", "p50 ms", "p99 ms", "max ms", "errores"));
+        for (String modo : MODOS) {
+            int puerto = puertoLibre();
+            Path log = Path.of("target", "album-load-" + modo + ".log");
+            Process servidor = arrancar(modo, puerto, log);
+            try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor();
+                 HttpClient http = HttpClient.newBuilder()
+                         .version(HttpClient.Version.HTTP_1_1)
+                         .connectTimeout(TIMEOUT)
+                         .executor(clientes)
+                         .build()) {
+                String base = "http://localhost:" + puerto + "/api/v1/albumes";
+                esperarArranque(http, base, servidor);
+                for (int numero : CLIENTES) {
+                    resultados.add(medir(http, base, modo, numero));
+                    System.out.println(resultados.getLast());
+                }
+            } finally {
+                servidor.destroy();
+                servidor.waitFor(30, TimeUnit.SECONDS);
+            }
+            long fijados = Files.readAllLines(log).stream().filter(linea -> linea.contains("fijado a su portador")).count();
+            resultados.add(String.format("%-9s avisos de hilos fijados: %d (%s)", modo, fijados, log));
+        }
+        System.out.println();
+        resultados.forEach(System.out::println);
+    }
+
+    private static String medir(HttpClient http, String base, String modo, int numero) throws InterruptedException {
+        Recorder latencias = new Recorder(TimeUnit.SECONDS.toNanos(60), 3);
+        LongAdder errores = new LongAdder();
+        long inicio = System.nanoTime() + TimeUnit.SECONDS.toNanos(CALENTAMIENTO);
+        long fin = inicio + TimeUnit.SECONDS.toNanos(DURACION);
+        List<Thread> hilos = IntStream.range(0, numero)
+                .mapToObj(i -> Thread.ofVirtual().start(() -> cliente(http, base, inicio, fin, latencias, errores)))
+                .toList();
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        Histogram histograma = latencias.getIntervalHistogram();
+        return String.format("%-9s %9d %14.0f %9.1f %9.1f %9.1f %9d", modo, numero,
+                histograma.getTotalCount() / (double) DURACION,
+                histograma.getValueAtPercentile(50) / 1e6,
+                histograma.getValueAtPercentile(99) / 1e6,
+                histograma.getMaxValue() / 1e6,
+                errores.sum());
+    }
+
+    private static void cliente(HttpClient http, String base, long inicio, long fin, Recorder latencias, LongAdder errores) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long ahora;
+        while ((ahora = System.nanoTime()) < fin) {
+            String uri = random.nextInt(10) == 0
+                    ? base + "?page=" + random.nextInt(ALBUMES / 10) + "&size=10"
+                    : base + "/" + (random.nextInt(ALBUMES) + 1);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(uri)).timeout(TIMEOUT).GET().build();
+            boolean correcta;
+            try {
+                correcta = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+            } catch (IOException e) {
+                correcta = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (ahora >= inicio) {
+                if (correcta) {
+                    latencias.recordValue(Math.min(System.nanoTime() - ahora, TimeUnit.SECONDS.toNanos(60)));
+                } else {
+                    errores.increment();
+                }
+            }
+        }
+    }
+
+    private static Process arrancar(String modo, int puerto, Path log) throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        return new ProcessBuilder(java, "-Dalbumes=" + ALBUMES, "-cp", classpath(), Servidor.class.getName(),
+                "--server.port=" + puerto,
+                "--spring.threads.virtual.enabled=" + "virtual".equals(modo))
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private static void esperarArranque(HttpClient http, String base, Process servidor) throws Exception {
+        long limite = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/" + ALBUMES)).GET().build();
+        while (System.nanoTime() < limite && servidor.isAlive()) {
+            try {
+                if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Todavía no escucha
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("El servidor no ha arrancado, revisa su log");
+    }
+
+    // Con exec:java la clase se carga desde un URLClassLoader y java.class.path es el de Maven
+    private static String classpath() {
+        if (AlbumLoadBenchmark.class.getClassLoader() instanceof URLClassLoader loader) {
+            return Arrays.stream(loader.getURLs())
+                    .map(url -> new File(URI.create(url.toString())).getPath())
+                    .collect(Collectors.joining(File.pathSeparator));
+        }
+        return System.getProperty("java.class.path");
+    }
+
+    private static int puertoLibre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    // La aplicación tal cual, sin los límites que rechazarían la carga y con los álbumes de la prueba
+    public static class Servidor {
+        private static final String[] PROPIEDADES = {
+                "--spring.sql.init.mode=never",
+                "--ratelimit.enabled=false",
+                "--concurrency.enabled=false",
+                "--bulkheads.albumes-lectura.max-concurrent-calls=100000",
+                "--bulkheads.albumes-escritura.max-concurrent-calls=100000",
+                "--server.tomcat.max-connections=20000",
+                "--server.tomcat.accept-count=10000",
+                "--logging.level.org.example=WARN",
+                "--logging.level.org.hibernate=WARN",
+                "--logging.level.org.hibernate.orm.jdbc.bind=WARN",
+                "--spring.jpa.show-sql=false"
+        };
+
+        public static void main(String[] args) {
+            // Como argumentos para que prevalezcan sobre application.properties
+            ConfigurableApplicationContext context = SpringApplication.run(Application.class,
+                    Stream.concat(Arrays.stream(PROPIEDADES), Arrays.stream(args)).toArray(String[]::new));
+            Artista artista = context.getBean(ArtistaRepository.class).save(Artista.builder()
+                    .nombre("Artista de prueba")
+                    .nacionalidad("España")
+                    .build());
+            context.getBean(AlbumRepository.class).saveAll(IntStream.rangeClosed(1, ALBUMES)
+                    .mapToObj(i -> Album.builder()
+                            .titulo("Álbum " + i)
+                            .genero(i % 2 == 0 ? "Pop" : "Rock")
+                            .fechaLanzamiento(LocalDate.of(2000, 1, 1).plusDays(i))
+                            .precio(9.99 + i % 10)
+                            .artista(artista)
+                            .build())
+                    .toList());
+        }
+    }
+}
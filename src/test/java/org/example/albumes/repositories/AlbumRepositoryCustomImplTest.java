@@ -0,0 +1,210 @@
+package org.example.albumes.repositories;
+
+import org.example.Application;
+import org.example.albumes.dto.AlbumResponseDto;
+import org.example.albumes.models.Album;
+import org.example.artistas.models.Artista;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// data.sql no encaja con el esquema actual y reset.sql crea otras tablas: el esquema lo crea Hibernate y cada
+// test deshace sus inserciones
+@ContextConfiguration(classes = Application.class)
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+class AlbumRepositoryCustomImplTest {
+
+    private final Artista rosalia = Artista.builder().nombre("Rosalía").nacionalidad("España").build();
+    private final Artista queen = Artista.builder().nombre("Queen").nacionalidad("Reino Unido").build();
+
+    private final Album motomami = album("Motomami", "Pop", 19.99, rosalia, false);
+    private final Album elMalQuerer = album("El mal querer", "Pop", 15.99, rosalia, false);
+    private final Album losAngeles = album("Los Ángeles", "Flamenco", 9.99, rosalia, false);
+    private final Album opera = album("A Night at the Opera", "Rock", 19.99, queen, false);
+    private final Album innuendo = album("Innuendo", "Rock", 15.99, queen, true);
+    // Mismo título que otro álbum: el cursor tiene que desempatar por id
+    private final Album grandesExitos = album("Greatest Hits", "Rock", 12.99, queen, false);
+    private final Album grandesExitosPop = album("Greatest Hits", "Pop", 12.99, rosalia, false);
+
+    @Autowired
+    private AlbumRepository albumRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private static Album album(String titulo, String genero, Double precio, Artista artista, boolean isDeleted) {
+        return Album.builder()
+                .titulo(titulo)
+                .genero(genero)
+                .fechaLanzamiento(LocalDate.of(2020, 1, 1))
+                .precio(precio)
+                .artista(artista)
+                .isDeleted(isDeleted)
+                .build();
+    }
+
+    private static Specification<Album> genero(String genero) {
+        return (root, query, cb) -> cb.equal(root.get("genero"), genero);
+    }
+
+    private static Specification<Album> artista(String nombre) {
+        return (root, query, cb) -> cb.like(cb.lower(root.get("artista").get("nombre")), "%" + nombre.toLowerCase() + "%");
+    }
+
+    private static Specification<Album> titulo(String titulo) {
+        return (root, query, cb) -> cb.like(cb.lower(root.get("titulo")), "%" + titulo.toLowerCase() + "%");
+    }
+
+    private static Specification<Album> isDeleted(boolean isDeleted) {
+        return (root, query, cb) -> cb.equal(root.get("isDeleted"), isDeleted);
+    }
+
+    private static List<String> titulos(List<AlbumResponseDto> albumes) {
+        return albumes.stream().map(AlbumResponseDto::getTitulo).toList();
+    }
+
+    // Recorre todas las páginas pasando a cada una la posición del último elemento de la anterior
+    private List<List<AlbumResponseDto>> paginas(Specification<Album> spec, Sort sort, int size) {
+        List<List<AlbumResponseDto>> paginas = new ArrayList<>();
+        KeysetScrollPosition position = ScrollPosition.keyset();
+        Window<AlbumResponseDto> window;
+        do {
+            window = albumRepository.findAllResponse(spec, position, sort, size);
+            paginas.add(window.getContent());
+            if (!window.isEmpty()) {
+                position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            }
+        } while (window.hasNext());
+        return paginas;
+    }
+
+    @BeforeEach
+    void setUp() {
+        entityManager.persist(rosalia);
+        entityManager.persist(queen);
+        List.of(motomami, elMalQuerer, losAngeles, opera, innuendo, grandesExitos, grandesExitosPop)
+                .forEach(entityManager::persist);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findAllResponse_SinFiltros_DevuelveTodosConElArtista() {
+        var page = albumRepository.findAllResponse(Specification.allOf(), PageRequest.of(0, 10, Sort.by("id")));
+
+        assertAll("findAllResponse",
+                () -> assertEquals(7, page.getTotalElements()),
+                () -> assertEquals(motomami.getId(), page.getContent().getFirst().getId()),
+                () -> assertEquals("Rosalía", page.getContent().getFirst().getNombreArtista()),
+                () -> assertEquals(motomami.getUuid(), page.getContent().getFirst().getUuid())
+        );
+    }
+
+    @Test
+    void findAllResponse_GeneroYArtista_SoloLosQueCumplenAmbos() {
+        var page = albumRepository.findAllResponse(
+                Specification.allOf(genero("Pop"), artista("rosa")), PageRequest.of(0, 10, Sort.by("titulo")));
+
+        assertAll("findAllResponse",
+                () -> assertEquals(3, page.getTotalElements()),
+                () -> assertEquals(List.of("El mal querer", "Greatest Hits", "Motomami"), titulos(page.getContent()))
+        );
+    }
+
+    @Test
+    void findAllResponse_ArtistaEIsDeleted_ExcluyeLosBorrados() {
+        var page = albumRepository.findAllResponse(
+                Specification.allOf(artista("queen"), isDeleted(false)), PageRequest.of(0, 10, Sort.by("titulo")));
+
+        assertEquals(List.of("A Night at the Opera", "Greatest Hits"), titulos(page.getContent()));
+    }
+
+    @Test
+    void findAllResponse_FiltroSinCoincidencias_PaginaVaciaYTotalCero() {
+        var page = albumRepository.findAllResponse(
+                Specification.allOf(titulo("motomami"), genero("Rock")), PageRequest.of(0, 10));
+
+        assertAll("findAllResponse",
+                () -> assertTrue(page.isEmpty()),
+                () -> assertEquals(0, page.getTotalElements())
+        );
+    }
+
+    @Test
+    void findAllResponse_PaginaIntermedia_CuentaElTotalFiltrado() {
+        var page = albumRepository.findAllResponse(isDeleted(false), PageRequest.of(1, 2, Sort.by("precio", "id")));
+
+        assertAll("findAllResponse",
+                () -> assertEquals(6, page.getTotalElements()),
+                () -> assertEquals(3, page.getTotalPages()),
+                () -> assertEquals(List.of(grandesExitosPop.getId(), elMalQuerer.getId()),
+                        page.getContent().stream().map(AlbumResponseDto::getId).toList())
+        );
+    }
+
+    @Test
+    void findAllResponse_CursorPorTitulo_RecorreTodoSinRepetirNiSaltarse() {
+        var paginas = paginas(Specification.allOf(), Sort.by("titulo"), 2);
+
+        var todos = paginas.stream().flatMap(List::stream).toList();
+        assertAll("findAllResponse",
+                () -> assertEquals(List.of(2, 2, 2, 1), paginas.stream().map(List::size).toList()),
+                () -> assertEquals(List.of("A Night at the Opera", "El mal querer", "Greatest Hits", "Greatest Hits",
+                        "Innuendo", "Los Ángeles", "Motomami"), titulos(todos)),
+                // Los dos "Greatest Hits" caen en la misma página pero el desempate por id fija su orden
+                () -> assertEquals(List.of(grandesExitos.getId(), grandesExitosPop.getId()),
+                        todos.subList(2, 4).stream().map(AlbumResponseDto::getId).toList())
+        );
+    }
+
+    @Test
+    void findAllResponse_CursorConEmpateEnElCorte_ContinuaPorId() {
+        // Con tamaño 3 el corte cae entre los dos "Greatest Hits"
+        var paginas = paginas(Specification.allOf(), Sort.by("titulo"), 3);
+
+        assertAll("findAllResponse",
+                () -> assertEquals(List.of("A Night at the Opera", "El mal querer", "Greatest Hits"), titulos(paginas.get(0))),
+                () -> assertEquals(grandesExitos.getId(), paginas.get(0).get(2).getId()),
+                () -> assertEquals(grandesExitosPop.getId(), paginas.get(1).get(0).getId()),
+                () -> assertEquals(7, paginas.stream().mapToInt(List::size).sum())
+        );
+    }
+
+    @Test
+    void findAllResponse_CursorDescendenteConFiltro_ContinuaDentroDelFiltro() {
+        var paginas = paginas(Specification.allOf(artista("rosalía"), isDeleted(false)),
+                Sort.by(Sort.Direction.DESC, "precio"), 2);
+
+        var todos = paginas.stream().flatMap(List::stream).toList();
+        assertAll("findAllResponse",
+                () -> assertEquals(List.of(2, 2), paginas.stream().map(List::size).toList()),
+                () -> assertEquals(List.of("Motomami", "El mal querer", "Greatest Hits", "Los Ángeles"), titulos(todos))
+        );
+    }
+
+    @Test
+    void findAllResponse_CursorUltimaPaginaExacta_NoHaySiguiente() {
+        Window<AlbumResponseDto> window = albumRepository.findAllResponse(
+                genero("Rock"), ScrollPosition.keyset(), Sort.by("id"), 3);
+
+        assertAll("findAllResponse",
+                () -> assertEquals(3, window.size()),
+                () -> assertFalse(window.hasNext())
+        );
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.albumes.search;
+
+import org.example.albumes.models.Album;
+import org.example.albumes.repositories.AlbumRepository;
+import org.example.artistas.models.Artista;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AlbumSearchIndexTest {
+
+    @Mock
+    private AlbumRepository albumRepository;
+
+    @InjectMocks
+    private AlbumSearchIndex albumSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(albumSearchIndex, "maxCandidatos", 1000);
+        when(albumRepository.findAllSearchEntries()).thenReturn(List.of(
+                new AlbumSearchEntry(1L, "Abbey Road", "Rock", 1L, "The Beatles"),
+                new AlbumSearchEntry(2L, "Thriller", "Pop", 2L, "Michael Jackson"),
+                new AlbumSearchEntry(3L, "Let It Be", "Rock", 1L, "The Beatles")
+        ));
+        albumSearchIndex.reconstruir();
+    }
+
+    @Test
+    void buscar_Subcadena_DevuelveLosIds() {
+        assertAll("buscar",
+                () -> assertEquals(Optional.of(Set.of(1L)), albumSearchIndex.buscar(AlbumSearchIndex.Campo.TITULO, "bey ro")),
+                () -> assertEquals(Optional.of(Set.of(1L, 3L)), albumSearchIndex.buscar(AlbumSearchIndex.Campo.GENERO, "ROC")),
+                () -> assertEquals(Optional.of(Set.of()), albumSearchIndex.buscar(AlbumSearchIndex.Campo.TITULO, "motomami"))
+        );
+    }
+
+    @Test
+    void buscar_TextoCorto_DevuelveVacio() {
+        assertTrue(albumSearchIndex.buscar(AlbumSearchIndex.Campo.TITULO, "ab").isEmpty());
+    }
+
+    @Test
+    void indexar_Actualizacion_SustituyeLosValoresAnteriores() {
+        var artista = Artista.builder().id(2L).nombre("Michael Jackson").build();
+        albumSearchIndex.indexar(Album.builder().id(2L).titulo("Bad").genero("Pop").artista(artista).build());
+
+        assertAll("indexar",
+                () -> assertEquals(Optional.of(Set.of()), albumSearchIndex.buscar(AlbumSearchIndex.Campo.TITULO, "thriller")),
+                () -> assertEquals(Optional.of(Set.of(2L)), albumSearchIndex.buscar(AlbumSearchIndex.Campo.ARTISTA, "jackson"))
+        );
+    }
+
+    @Test
+    void eliminar_YaNoSeEncuentra() {
+        albumSearchIndex.eliminar(1L);
+
+        assertEquals(Optional.of(Set.of(3L)), albumSearchIndex.buscar(AlbumSearchIndex.Campo.ARTISTA, "beatles"));
+    }
+
+    @Test
+    void renombrarArtista_ReindexaSusAlbumes() {
+        albumSearchIndex.renombrarArtista(1L, "Los Escarabajos");
+
+        assertAll("renombrarArtista",
+                () -> assertEquals(Optional.of(Set.of()), albumSearchIndex.buscar(AlbumSearchIndex.Campo.ARTISTA, "beatles")),
+                () -> assertEquals(Optional.of(Set.of(1L, 3L)), albumSearchIndex.buscar(AlbumSearchIndex.Campo.ARTISTA, "escarabajos"))
+        );
+    }
+
+    @Test
+    void indexar_EnTransaccion_SeAplicaAlConfirmar() {
+        var artista = Artista.builder().id(4L).nombre("Rosalía").build();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            albumSearchIndex.indexar(Album.builder().id(4L).titulo("Motomami").genero("Pop").artista(artista).build());
+            var antes = albumSearchIndex.buscar(AlbumSearchIndex.Campo.TITULO, "motomami");
+
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+
+            assertAll("indexar",
+                    () -> assertEquals(Optional.of(Set.of()), antes),
+                    () -> assertEquals(Optional.of(Set.of(4L)), albumSearchIndex.buscar(AlbumSearchIndex.Campo.TITULO, "motomami"))
+            );
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void eliminar_TransaccionDeshecha_NoCambiaElIndice() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            albumSearchIndex.eliminar(1L);
+        } finally {
+            // Sin commit no se llama a afterCommit
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(Optional.of(Set.of(1L, 3L)), albumSearchIndex.buscar(AlbumSearchIndex.Campo.ARTISTA, "beatles"));
+    }
+
+    @Test
+    void reconstruir_LeeLaTablaConElIndiceBloqueado() {
+        var lock = (ReentrantReadWriteLock) ReflectionTestUtils.getField(albumSearchIndex, "lock");
+        when(albumRepository.findAllSearchEntries()).thenAnswer(invocation -> {
+            assertTrue(lock.isWriteLockedByCurrentThread());
+            return List.of(new AlbumSearchEntry(2L, "Thriller", "Pop", 2L, "Michael Jackson"));
+        });
+
+        albumSearchIndex.reconstruir();
+
+        assertEquals(Optional.of(Set.of()), albumSearchIndex.buscar(AlbumSearchIndex.Campo.ARTISTA, "beatles"));
+    }
+}
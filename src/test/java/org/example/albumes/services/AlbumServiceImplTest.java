@@ -0,0 +1,177 @@
+package org.example.albumes.services;
+
+import org.example.albumes.dto.AlbumCreateDto;
+import org.example.albumes.dto.AlbumUpdateDto;
+import org.example.albumes.exceptions.AlbumBadRequestException;
+import org.example.albumes.exceptions.AlbumConflictException;
+import org.example.albumes.mappers.AlbumMapper;
+import org.example.albumes.models.Album;
+import org.example.albumes.repositories.AlbumRepository;
+import org.example.albumes.search.AlbumSearchIndex;
+import org.example.artistas.models.Artista;
+import org.example.artistas.repositories.ArtistaRepository;
+import org.example.websockets.notifications.mappers.AlbumNotificationMapper;
+import org.example.websockets.notifications.models.AlbumOutbox;
+import org.example.websockets.notifications.models.Notificacion;
+import org.example.websockets.notifications.repositories.AlbumOutboxRepository;
+import org.example.websockets.notifications.services.AlbumOutboxRelay;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AlbumServiceImplTest {
+
+    private final Artista artista = Artista.builder().id(1L).nombre("Rosalía").build();
+
+    @Mock
+    private AlbumRepository albumRepository;
+
+    @Spy
+    private AlbumMapper albumMapper;
+
+    @Mock
+    private ArtistaRepository artistaRepository;
+
+    @Mock
+    private AlbumSearchIndex albumSearchIndex;
+
+    @Spy
+    private AlbumNotificationMapper albumNotificationMapper;
+
+    @Mock
+    private AlbumOutboxRepository albumOutboxRepository;
+
+    @Mock
+    private AlbumOutboxRelay albumOutboxRelay;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
+    @InjectMocks
+    private AlbumServiceImpl albumService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void saveAll_GuardaLosAlbumesYSusNotificacionesDeUnaVez() {
+        var secuencia = new AtomicLong();
+        when(artistaRepository.findByNombreEqualsIgnoreCase("Rosalía")).thenReturn(Optional.of(artista));
+        when(cacheManager.getCache("albumes")).thenReturn(cache);
+        when(albumRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Album> albumes = invocation.getArgument(0);
+            // Como Hibernate al persistir: asigna el id y la versión inicial
+            albumes.forEach(album -> {
+                album.setId(secuencia.incrementAndGet());
+                album.setVersion(0L);
+            });
+            return albumes;
+        });
+
+        var res = albumService.saveAll(List.of(albumDto("Motomami", "Rosalía"), albumDto("El mal querer", "rosalía")));
+
+        ArgumentCaptor<List<AlbumOutbox>> outbox = ArgumentCaptor.forClass(List.class);
+        verify(albumOutboxRepository).saveAll(outbox.capture());
+        assertAll(
+                () -> assertEquals(List.of(1L, 2L), res.stream().map(album -> album.getId()).toList()),
+                () -> assertEquals(List.of(1L, 2L), outbox.getValue().stream().map(AlbumOutbox::getAlbumId).toList()),
+                () -> assertEquals(List.of(0L, 0L), outbox.getValue().stream().map(AlbumOutbox::getAlbumVersion).toList()),
+                // El artista se busca una sola vez aunque aparezca con distintas mayúsculas
+                () -> verify(artistaRepository, times(1)).findByNombreEqualsIgnoreCase(any()),
+                () -> verify(albumRepository, never()).save(any()),
+                () -> verify(albumSearchIndex, times(2)).indexar(any()),
+                () -> verify(cache).put(1L, res.get(0)),
+                () -> verify(cache).put(2L, res.get(1)),
+                () -> verify(albumOutboxRelay).avisar()
+        );
+    }
+
+    @Test
+    void saveAll_ArtistaNoExiste_NoGuardaNinguno() {
+        when(artistaRepository.findByNombreEqualsIgnoreCase(any())).thenReturn(Optional.empty());
+
+        var albumes = List.of(albumDto("Motomami", "Nadie"));
+
+        assertThrows(AlbumBadRequestException.class, () -> albumService.saveAll(albumes));
+        verify(albumRepository, never()).saveAll(any());
+        verify(albumOutboxRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void update_AlbumCambiadoEntreTanto_LanzaConflictoYNoNotifica() {
+        when(albumRepository.findById(1L)).thenReturn(Optional.of(album(1L, 2L)));
+        when(albumRepository.saveAndFlush(any())).thenThrow(new ObjectOptimisticLockingFailureException(Album.class, 1L));
+
+        var update = AlbumUpdateDto.builder().precio(9.99).build();
+
+        assertThrows(AlbumConflictException.class, () -> albumService.update(1L, update));
+        verify(albumOutboxRepository, never()).save(any());
+        verify(albumSearchIndex, never()).indexar(any());
+    }
+
+    @Test
+    void update_NotificaLaVersionGuardada() {
+        when(albumRepository.findById(1L)).thenReturn(Optional.of(album(1L, 2L)));
+        when(albumRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            Album album = invocation.getArgument(0);
+            album.setVersion(album.getVersion() + 1);
+            return album;
+        });
+
+        albumService.update(1L, AlbumUpdateDto.builder().precio(9.99).build());
+
+        verify(albumOutboxRepository).save(argThat(outbox ->
+                outbox.getTipo() == Notificacion.Tipo.UPDATE && outbox.getAlbumVersion() == 3L));
+    }
+
+    @Test
+    void deleteById_NotificaLaVersionSiguienteALaBorrada() {
+        when(albumRepository.findById(1L)).thenReturn(Optional.of(album(1L, 2L)));
+
+        albumService.deleteById(1L);
+
+        verify(albumRepository).flush();
+        verify(albumOutboxRepository).save(argThat(outbox ->
+                outbox.getTipo() == Notificacion.Tipo.DELETE && outbox.getAlbumVersion() == 3L));
+    }
+
+    private Album album(Long id, Long version) {
+        return Album.builder()
+                .id(id)
+                .titulo("Motomami")
+                .genero("Pop")
+                .fechaLanzamiento(LocalDate.of(2022, 3, 18))
+                .precio(19.99)
+                .artista(artista)
+                .version(version)
+                .build();
+    }
+
+    private static AlbumCreateDto albumDto(String titulo, String nombreArtista) {
+        return AlbumCreateDto.builder()
+                .titulo(titulo)
+                .genero("Pop")
+                .fechaLanzamiento(LocalDate.of(2022, 3, 18))
+                .nombreArtista(nombreArtista)
+                .precio(19.99)
+                .build();
+    }
+}
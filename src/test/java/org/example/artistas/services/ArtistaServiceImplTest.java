@@ -1,5 +1,6 @@
 package org.example.artistas.services;
 
+import org.example.albumes.search.AlbumSearchIndex;
 import org.example.artistas.dto.ArtistaRequestDto;
 import org.example.artistas.exceptions.ArtistaConflictException;
 import org.example.artistas.exceptions.ArtistaNotFoundException;
@@ -38,6 +39,9 @@ class ArtistaServiceImplTest {
     @Spy
     private ArtistaMapper artistaMapper;
 
+    @Mock
+    private AlbumSearchIndex albumSearchIndex;
+
     @InjectMocks
     private ArtistaServiceImpl artistaService;
 
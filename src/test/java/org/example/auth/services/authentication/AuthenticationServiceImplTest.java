@@ -0,0 +1,88 @@
+package org.example.auth.services.authentication;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.auth.dto.UserSignUpRequest;
+import org.example.auth.repositories.AuthUsersRepository;
+import org.example.auth.services.jwt.JwtService;
+import org.example.auth.services.refresh.RefreshTokenService;
+import org.example.auth.services.revocation.TokenRevocationService;
+import org.example.auth.services.users.AuthUsersService;
+import org.example.config.cache.CacheConfig;
+import org.example.config.cache.SingleFlightCaffeineCache;
+import org.example.users.exceptions.UserNotFound;
+import org.example.users.models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.interceptor.CacheOperationInvoker;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuthenticationServiceImplTest {
+
+    @Mock
+    private AuthUsersRepository authUsersRepository;
+    @Mock
+    private PasswordEncoder passwordEncoder;
+    @Mock
+    private JwtService jwtService;
+    @Mock
+    private AuthenticationManager authenticationManager;
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+    @Mock
+    private RefreshTokenService refreshTokenService;
+    @Mock
+    private AuthUsersService authUsersService;
+
+    private final SimpleCacheManager cacheManager = new SimpleCacheManager();
+    private AuthenticationServiceImpl authenticationService;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.setCaches(List.of(new SingleFlightCaffeineCache(CacheConfig.USERS,
+                Caffeine.newBuilder().build(), true, new SimpleMeterRegistry(), Caffeine.newBuilder().build())));
+        cacheManager.initializeCaches();
+        authenticationService = new AuthenticationServiceImpl(authUsersRepository, passwordEncoder, jwtService,
+                authenticationManager, tokenRevocationService, refreshTokenService, authUsersService, cacheManager);
+    }
+
+    @Test
+    void signUp_IdConsultadoAntesDeExistir_OlvidaLaCacheNegativa() {
+        Cache cache = cacheManager.getCache(CacheConfig.USERS);
+        // Alguien ha pedido el siguiente id de la secuencia antes de que se registrara el usuario
+        assertThrows(Cache.ValueRetrievalException.class, () -> cache.get(7L, () -> {
+            throw new CacheOperationInvoker.ThrowableWrapper(new UserNotFound(7L));
+        }));
+        when(passwordEncoder.encode("secreto")).thenReturn("cifrado");
+        when(authUsersRepository.save(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            user.setId(7L);
+            return user;
+        });
+        when(jwtService.generateToken(any())).thenReturn("token");
+        when(refreshTokenService.create("pepe")).thenReturn("refresco");
+
+        var response = authenticationService.signUp(UserSignUpRequest.builder()
+                .nombre("Pepe").apellidos("Pérez").username("pepe").email("pepe@example.com")
+                .password("secreto").passwordComprobacion("secreto")
+                .build());
+
+        assertAll("signUp",
+                () -> assertEquals("token", response.getToken()),
+                () -> assertEquals("Pepe", cache.get(7L, () -> "Pepe"))
+        );
+    }
+}
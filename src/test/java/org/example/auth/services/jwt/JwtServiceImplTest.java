@@ -0,0 +1,73 @@
+package org.example.auth.services.jwt;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceImplTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JwtServiceImpl jwtService = new JwtServiceImpl("secreto-de-pruebas", 3600L, 100, meterRegistry);
+    private final UserDetails admin = new User("admin", "admin", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+    @Test
+    void verify_TokenValido_DevuelveLosClaims() {
+        String token = jwtService.generateToken(admin);
+
+        JwtClaims claims = jwtService.verify(token);
+
+        assertAll(
+                () -> assertEquals("admin", claims.subject()),
+                () -> assertEquals(List.of("ROLE_ADMIN"), claims.roles()),
+                () -> assertNotNull(claims.id()),
+                () -> assertTrue(claims.expiresAt().isAfter(Instant.now())),
+                () -> assertTrue(jwtService.isTokenValid(claims, admin)),
+                () -> assertFalse(jwtService.isTokenValid(claims, new User("otro", "otro", List.of())))
+        );
+    }
+
+    @Test
+    void verify_FirmaDeOtroSecreto_LanzaExcepcion() {
+        String token = new JwtServiceImpl("otro-secreto", 3600L, 0, meterRegistry).generateToken(admin);
+
+        assertThrows(JWTVerificationException.class, () -> jwtService.verify(token));
+    }
+
+    @Test
+    void verify_TokenCaducado_LanzaExcepcion() {
+        String token = new JwtServiceImpl("secreto-de-pruebas", -10L, 0, meterRegistry).generateToken(admin);
+
+        assertThrows(JWTVerificationException.class, () -> jwtService.verify(token));
+    }
+
+    @Test
+    void verify_MismoToken_SoloVerificaLaFirmaUnaVez() {
+        String token = jwtService.generateToken(admin);
+
+        JwtClaims primera = jwtService.verify(token);
+        JwtClaims segunda = jwtService.verify(token);
+
+        assertAll(
+                () -> assertSame(primera, segunda),
+                () -> assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "jwt").tag("result", "hit").functionCounter().count()),
+                () -> assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "jwt").tag("result", "miss").functionCounter().count())
+        );
+    }
+
+    @Test
+    void verify_TokenAlterado_NoUsaLaCache() {
+        String token = jwtService.generateToken(admin);
+        jwtService.verify(token);
+        String alterado = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(JWTVerificationException.class, () -> jwtService.verify(alterado));
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.auth.services.jwt;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Coste de comprobar el token en cada petición autenticada: antes el filtro lo verificaba tres veces creando
+// el algoritmo y el verificador en cada una; ahora lo verifica una vez con un verificador compartido y, si el
+// token ya se había visto, ni siquiera comprueba la firma.
+// Se lanza desde el IDE con el main, o con: mvn test-compile exec:java -Dexec.classpathScope=test
+//   -Dexec.mainClass=org.example.auth.services.jwt.JwtVerificationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+    private static final String SECRET = "BabyNoMeLlameQueYoEstoyOcupáOlvidandoTusMaleYaDecidíQueEstaNocheSeSaleConToaMisMotomamiConTodaNisGyales";
+
+    private JwtServiceImpl jwtService;
+    private JwtServiceImpl jwtServiceCacheado;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtServiceImpl(SECRET, 86400L, 0, new SimpleMeterRegistry());
+        jwtServiceCacheado = new JwtServiceImpl(SECRET, 86400L, 10_000, new SimpleMeterRegistry());
+        userDetails = new User("admin", "admin", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        token = jwtService.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public boolean tresVerificacionesSinReutilizar() {
+        String username = JWT.require(Algorithm.HMAC256(SECRET)).build().verify(token).getSubject();
+        return username.equals(JWT.require(Algorithm.HMAC256(SECRET)).build().verify(token).getSubject())
+                && JWT.require(Algorithm.HMAC256(SECRET)).build().verify(token).getExpiresAt().getTime() > System.currentTimeMillis();
+    }
+
+    @Benchmark
+    public boolean unaVerificacionCompartida() {
+        JwtClaims claims = jwtService.verify(token);
+        return jwtService.isTokenValid(claims, userDetails);
+    }
+
+    @Benchmark
+    public boolean verificacionCacheada() {
+        JwtClaims claims = jwtServiceCacheado.verify(token);
+        return jwtServiceCacheado.isTokenValid(claims, userDetails);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtVerificationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
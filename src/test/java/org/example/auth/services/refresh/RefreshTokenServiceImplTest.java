@@ -0,0 +1,130 @@
+package org.example.auth.services.refresh;
+
+import org.example.auth.exceptions.AuthTokenNotValid;
+import org.example.auth.models.RefreshToken;
+import org.example.auth.repositories.RefreshTokensRepository;
+import org.example.users.events.UsuarioModificadoEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceImplTest {
+
+    @Mock
+    private RefreshTokensRepository refreshTokensRepository;
+
+    private RefreshTokenServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new RefreshTokenServiceImpl(refreshTokensRepository, "secreto", 3600, 0);
+    }
+
+    private RefreshToken guardado() {
+        var captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokensRepository, atLeastOnce()).save(captor.capture());
+        return captor.getAllValues().stream()
+                .filter(r -> r.getUsername().equals("pepe"))
+                .reduce((a, b) -> b)
+                .orElseThrow();
+    }
+
+    @Test
+    void create_GuardaElHmacYNoElToken() {
+        String token = service.create("pepe");
+        RefreshToken refresh = guardado();
+
+        assertAll(
+                () -> assertNotEquals(token, refresh.getHash()),
+                () -> assertEquals("pepe", refresh.getUsername()),
+                () -> assertFalse(refresh.getUsado()),
+                () -> assertTrue(refresh.getExpiracion().isAfter(Instant.now()))
+        );
+    }
+
+    @Test
+    void rotate_TokenValido_EmiteOtroDeLaMismaFamilia() {
+        String token = service.create("pepe");
+        RefreshToken original = guardado();
+        original.setId(1L);
+        when(refreshTokensRepository.findByHash(original.getHash())).thenReturn(Optional.of(original));
+        when(refreshTokensRepository.marcarUsado(1L)).thenReturn(1);
+
+        var rotacion = service.rotate(token);
+
+        var captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokensRepository, times(2)).save(captor.capture());
+        var nuevo = captor.getAllValues().get(1);
+        assertAll(
+                () -> assertEquals("pepe", rotacion.username()),
+                () -> assertNotEquals(token, rotacion.refreshToken()),
+                () -> assertEquals(original.getFamilia(), nuevo.getFamilia()),
+                () -> assertNotEquals(original.getHash(), nuevo.getHash())
+        );
+    }
+
+    @Test
+    void rotate_TokenYaUsado_RevocaLaFamilia() {
+        String token = service.create("pepe");
+        RefreshToken original = guardado();
+        original.setId(1L);
+        original.setUsado(true);
+        when(refreshTokensRepository.findByHash(original.getHash())).thenReturn(Optional.of(original));
+        when(refreshTokensRepository.marcarUsado(1L)).thenReturn(0);
+
+        assertThrows(AuthTokenNotValid.class, () -> service.rotate(token));
+        verify(refreshTokensRepository, times(1)).deleteByFamilia(original.getFamilia());
+        verify(refreshTokensRepository, times(1)).save(any());
+    }
+
+    @Test
+    void rotate_TokenCaducado_LanzaExcepcion() {
+        var caducado = RefreshToken.builder().id(1L).hash("h").username("pepe").familia("f")
+                .expiracion(Instant.now().minusSeconds(1)).build();
+        when(refreshTokensRepository.findByHash(anyString())).thenReturn(Optional.of(caducado));
+
+        assertThrows(AuthTokenNotValid.class, () -> service.rotate("token"));
+        verify(refreshTokensRepository, never()).marcarUsado(any());
+    }
+
+    @Test
+    void rotate_TokenDesconocido_LanzaExcepcion() {
+        when(refreshTokensRepository.findByHash(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(AuthTokenNotValid.class, () -> service.rotate("token"));
+    }
+
+    @Test
+    void onUsuarioModificado_RevocaLosTokensDeSusUsernames() {
+        var usernames = Set.of("pepe", "pepa");
+        when(refreshTokensRepository.deleteByUsernameIn(usernames)).thenReturn(3);
+
+        service.onUsuarioModificado(new UsuarioModificadoEvent(1L, usernames));
+
+        verify(refreshTokensRepository, times(1)).deleteByUsernameIn(usernames);
+    }
+
+    @Test
+    void create_OtraClave_OtroHmac() {
+        var otroService = new RefreshTokenServiceImpl(refreshTokensRepository, "otro secreto", 3600, 0);
+        String token = service.create("pepe");
+        String hash = guardado().getHash();
+        when(refreshTokensRepository.findByHash(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(AuthTokenNotValid.class, () -> otroService.rotate(token));
+        verify(refreshTokensRepository, never()).findByHash(hash);
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.auth.services.revocation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.auth.models.TokenRevocado;
+import org.example.auth.repositories.TokensRevocadosRepository;
+import org.example.auth.services.jwt.JwtClaims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceImplTest {
+
+    @Mock
+    private TokensRevocadosRepository tokensRevocadosRepository;
+
+    private TokenRevocationServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TokenRevocationServiceImpl(tokensRevocadosRepository, 16, 0.01, 0, new SimpleMeterRegistry());
+    }
+
+    private static JwtClaims claims(String jti, Instant expiracion) {
+        return new JwtClaims("pepe", jti, List.of("ROLE_USER"), Instant.now(), expiracion);
+    }
+
+    @Test
+    void revoke_TokenVigente_QuedaRevocadoYSeGuarda() {
+        service.revoke(claims("jti", Instant.now().plusSeconds(3600)));
+
+        assertAll(
+                () -> assertTrue(service.isRevoked("jti")),
+                () -> assertFalse(service.isRevoked("otro")),
+                () -> assertFalse(service.isRevoked(null)),
+                () -> verify(tokensRevocadosRepository, times(1)).save(any(TokenRevocado.class))
+        );
+    }
+
+    @Test
+    void revoke_DosVeces_SoloSeGuardaUna() {
+        var claims = claims("jti", Instant.now().plusSeconds(3600));
+
+        service.revoke(claims);
+        service.revoke(claims);
+
+        verify(tokensRevocadosRepository, times(1)).save(any(TokenRevocado.class));
+    }
+
+    @Test
+    void revoke_TokenCaducado_NoSeGuarda() {
+        service.revoke(claims("jti", Instant.now().minusSeconds(1)));
+
+        assertFalse(service.isRevoked("jti"));
+        verifyNoInteractions(tokensRevocadosRepository);
+    }
+
+    @Test
+    void revoke_SinJti_LanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> service.revoke(claims(null, Instant.now().plusSeconds(3600))));
+    }
+
+    @Test
+    void revoke_MasQueLaCapacidad_ReconstruyeElFiltroSinPerderNinguno() {
+        var jtis = IntStream.range(0, 100).mapToObj(i -> UUID.randomUUID().toString()).toList();
+
+        jtis.forEach(jti -> service.revoke(claims(jti, Instant.now().plusSeconds(3600))));
+
+        assertTrue(jtis.stream().allMatch(service::isRevoked));
+    }
+
+    @Test
+    void afterPropertiesSet_CargaLosRevocadosGuardados() {
+        when(tokensRevocadosRepository.findByExpiracionAfter(any())).thenReturn(List.of(
+                TokenRevocado.builder().jti("guardado").expiracion(Instant.now().plusSeconds(3600)).build()));
+
+        service.afterPropertiesSet();
+
+        assertTrue(service.isRevoked("guardado"));
+    }
+
+    @Test
+    void podar_EliminaLosCaducados() {
+        when(tokensRevocadosRepository.findByExpiracionAfter(any())).thenReturn(List.of(
+                TokenRevocado.builder().jti("caducado").expiracion(Instant.now().minusMillis(1)).build(),
+                TokenRevocado.builder().jti("vigente").expiracion(Instant.now().plusSeconds(3600)).build()));
+        service.afterPropertiesSet();
+
+        service.podar();
+
+        assertAll(
+                () -> assertFalse(service.isRevoked("caducado")),
+                () -> assertTrue(service.isRevoked("vigente")),
+                () -> verify(tokensRevocadosRepository, times(1)).deleteByExpiracionBefore(any())
+        );
+    }
+
+    @Test
+    void bloomFilter_SinFalsosNegativosYPocosFalsosPositivos() {
+        var filtro = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filtro.put("revocado-" + i));
+
+        long falsosPositivos = IntStream.range(0, 10_000).filter(i -> filtro.mightContain("vigente-" + i)).count();
+
+        assertAll(
+                () -> assertTrue(IntStream.range(0, 10_000).allMatch(i -> filtro.mightContain("revocado-" + i))),
+                () -> assertTrue(falsosPositivos < 300, "Falsos positivos: " + falsosPositivos)
+        );
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.auth.services.users;
+
+import org.example.config.cache.CacheConfig;
+import org.example.users.events.UsuarioModificadoEvent;
+import org.example.users.models.User;
+import org.example.users.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthUsersServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.PRINCIPALES);
+    private AuthUsersServiceImpl authUsersService;
+
+    @BeforeEach
+    void setUp() {
+        authUsersService = new AuthUsersServiceImpl(userRepository, cacheManager);
+    }
+
+    @Test
+    void loadUserByUsername_Existe_DevuelveElUsuario() {
+        var user = User.builder().id(1L).username("pepe").build();
+        when(userRepository.findByUsername("pepe")).thenReturn(Optional.of(user));
+
+        assertSame(user, authUsersService.loadUserByUsername("pepe"));
+    }
+
+    @Test
+    void loadUserByUsername_NoExiste_LanzaExcepcion() {
+        when(userRepository.findByUsername("nadie")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> authUsersService.loadUserByUsername("nadie"));
+    }
+
+    @Test
+    void onUsuarioModificado_InvalidaLosUsernamesAfectados() {
+        var cache = cacheManager.getCache(CacheConfig.PRINCIPALES);
+        cache.put("pepe", User.builder().username("pepe").build());
+        cache.put("pepa", User.builder().username("pepa").build());
+        cache.put("otro", User.builder().username("otro").build());
+
+        authUsersService.onUsuarioModificado(new UsuarioModificadoEvent(1L, Set.of("pepe", "pepa")));
+
+        assertAll(
+                () -> assertNull(cache.get("pepe")),
+                () -> assertNull(cache.get("pepa")),
+                () -> assertNotNull(cache.get("otro"))
+        );
+    }
+}
@@ -0,0 +1,137 @@
+package org.example.config.auth;
+
+import org.example.auth.services.jwt.JwtClaims;
+import org.example.auth.services.jwt.JwtService;
+import org.example.auth.services.revocation.TokenRevocationService;
+import org.example.auth.services.users.AuthUsersService;
+import org.example.users.models.Role;
+import org.example.users.models.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private AuthUsersService authUsersService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private JwtAuthenticationFilter filter;
+
+    private final JwtClaims claims = new JwtClaims("admin", "jti", List.of("ROLE_ADMIN", "ROLE_USER"),
+            Instant.now(), Instant.now().plusSeconds(3600));
+    private final User admin = User.builder().id(1L).username("admin").roles(Set.of(Role.ADMIN, Role.USER)).build();
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthenticationFilter(jwtService, authUsersService, tokenRevocationService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Authentication filtrar() throws Exception {
+        var request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer token");
+        var response = new MockHttpServletResponse();
+        var chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        assertNotNull(chain.getRequest(), "La petición debe seguir la cadena");
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @Test
+    void doFilter_ConEstado_CargaElUsuarioEnCadaPeticion() throws Exception {
+        when(jwtService.verify("token")).thenReturn(claims);
+        when(authUsersService.loadUserByUsername("admin")).thenReturn(admin);
+        when(jwtService.isTokenValid(claims, admin)).thenReturn(true);
+
+        Authentication authentication = filtrar();
+
+        assertAll(
+                () -> assertSame(admin, authentication.getPrincipal()),
+                () -> verify(jwtService, times(1)).verify("token"),
+                () -> verify(authUsersService, times(1)).loadUserByUsername("admin")
+        );
+    }
+
+    @Test
+    void doFilter_SinEstado_RolesDelTokenSinConsultarElUsuario() throws Exception {
+        ReflectionTestUtils.setField(filter, "stateless", true);
+        when(jwtService.verify("token")).thenReturn(claims);
+
+        Authentication authentication = filtrar();
+
+        assertAll(
+                () -> assertEquals("admin", authentication.getName()),
+                () -> assertEquals(Set.of("ROLE_ADMIN", "ROLE_USER"), authentication.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority).collect(Collectors.toSet())),
+                () -> assertTrue(authentication.isAuthenticated())
+        );
+        verifyNoInteractions(authUsersService);
+    }
+
+    @Test
+    void doFilter_SinEstado_ElPrincipalSoloSeCargaSiSePide() throws Exception {
+        ReflectionTestUtils.setField(filter, "stateless", true);
+        when(jwtService.verify("token")).thenReturn(claims);
+        when(authUsersService.loadUserByUsername("admin")).thenReturn(admin);
+
+        Authentication authentication = filtrar();
+        verifyNoInteractions(authUsersService);
+
+        assertAll(
+                () -> assertSame(admin, authentication.getPrincipal()),
+                () -> assertSame(admin, authentication.getPrincipal()),
+                () -> verify(authUsersService, times(1)).loadUserByUsername("admin")
+        );
+    }
+
+    @Test
+    void doFilter_TokenRevocado_Devuelve401() throws Exception {
+        ReflectionTestUtils.setField(filter, "stateless", true);
+        when(jwtService.verify("token")).thenReturn(claims);
+        when(tokenRevocationService.isRevoked("jti")).thenReturn(true);
+        var request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer token");
+        var response = new MockHttpServletResponse();
+        var chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertAll(
+                () -> assertEquals(401, response.getStatus()),
+                () -> assertNull(chain.getRequest()),
+                () -> assertNull(SecurityContextHolder.getContext().getAuthentication())
+        );
+        verifyNoInteractions(authUsersService);
+    }
+}
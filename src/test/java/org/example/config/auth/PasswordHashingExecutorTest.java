@@ -0,0 +1,88 @@
+package org.example.config.auth;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.auth.exceptions.AuthServiceUnavailable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private PasswordHashingExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        liberar.countDown();
+        executor.destroy();
+    }
+
+    private CompletableFuture<String> bloquear() {
+        return executor.submit(() -> {
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "bloqueada";
+        });
+    }
+
+    private static Throwable causa(CompletableFuture<?> futuro) {
+        var ex = assertThrows(ExecutionException.class, () -> futuro.get(5, TimeUnit.SECONDS));
+        return ex.getCause();
+    }
+
+    @Test
+    void submit_ConHueco_EjecutaLaTarea() throws Exception {
+        executor = new PasswordHashingExecutor(2, 10, 1000, meterRegistry);
+
+        assertAll(
+                () -> assertEquals("ok", executor.submit(() -> "ok").get(5, TimeUnit.SECONDS)),
+                () -> assertEquals(1, meterRegistry.get("auth.hashing.queue.wait").timer().count())
+        );
+    }
+
+    @Test
+    void submit_ColaLlena_RechazaSinEsperar() {
+        executor = new PasswordHashingExecutor(1, 1, 60_000, meterRegistry);
+        bloquear();
+        bloquear();
+
+        var rechazada = executor.submit(() -> "ok");
+
+        assertAll(
+                () -> assertTrue(rechazada.isCompletedExceptionally()),
+                () -> assertInstanceOf(AuthServiceUnavailable.class, causa(rechazada)),
+                () -> assertEquals(1, meterRegistry.get("auth.hashing.rejected").tag("reason", "queue-full").counter().count())
+        );
+    }
+
+    @Test
+    void submit_EsperaAgotada_NoEjecutaLaTarea() throws Exception {
+        executor = new PasswordHashingExecutor(1, 10, 200, meterRegistry);
+        var bloqueada = bloquear();
+        var ejecutada = new CountDownLatch(1);
+        var caducada = executor.submit(() -> {
+            ejecutada.countDown();
+            return "ok";
+        });
+
+        Thread.sleep(400);
+        liberar.countDown();
+
+        assertAll(
+                () -> assertEquals("bloqueada", bloqueada.get(5, TimeUnit.SECONDS)),
+                () -> assertInstanceOf(AuthServiceUnavailable.class, causa(caducada)),
+                () -> assertEquals(1, ejecutada.getCount()),
+                () -> assertEquals(1, meterRegistry.get("auth.hashing.rejected").tag("reason", "queue-timeout").counter().count())
+        );
+    }
+}
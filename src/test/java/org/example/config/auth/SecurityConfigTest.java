@@ -0,0 +1,44 @@
+package org.example.config.auth;
+
+import org.example.Application;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.assertj.MockMvcTester;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = Application.class, properties = "spring.sql.init.mode=never")
+@AutoConfigureMockMvc
+class SecurityConfigTest {
+
+    @Autowired
+    private MockMvcTester mockMvcTester;
+
+    @Test
+    void actuator_Anonimo_Rechazado() {
+        assertThat(mockMvcTester.get().uri("/actuator/metrics").exchange()).hasStatus(HttpStatus.FORBIDDEN);
+        assertThat(mockMvcTester.delete().uri("/actuator/caches").exchange()).hasStatus(HttpStatus.FORBIDDEN);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void actuator_UsuarioSinAdmin_Rechazado() {
+        assertThat(mockMvcTester.get().uri("/actuator/metrics").exchange()).hasStatus(HttpStatus.FORBIDDEN);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void actuator_Admin_VeLasMetricasPeroNoLasCaches() {
+        assertThat(mockMvcTester.get().uri("/actuator/metrics").exchange()).hasStatusOk();
+        assertThat(mockMvcTester.delete().uri("/actuator/caches").exchange()).hasStatus(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void actuator_HealthAnonimo_Permitido() {
+        assertThat(mockMvcTester.get().uri("/actuator/health").exchange()).hasStatusOk();
+    }
+}
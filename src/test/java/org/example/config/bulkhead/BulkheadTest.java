@@ -0,0 +1,101 @@
+package org.example.config.bulkhead;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void call_ConHueco_EjecutaYLibera() {
+        var bulkhead = new Bulkhead("prueba", 1, Duration.ZERO, meterRegistry);
+
+        assertAll(
+                () -> assertEquals("ok", bulkhead.call(() -> "ok")),
+                () -> assertEquals("otra", bulkhead.call(() -> "otra")),
+                () -> assertEquals(0, bulkhead.getActiveCalls())
+        );
+    }
+
+    @Test
+    void call_Lleno_RechazaTrasLaEsperaMaxima() throws Exception {
+        var bulkhead = new Bulkhead("prueba", 1, Duration.ofMillis(20), meterRegistry);
+        var dentro = new CountDownLatch(1);
+        var salir = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.execute(() -> bulkhead.run(() -> {
+            dentro.countDown();
+            try {
+                salir.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(dentro.await(5, TimeUnit.SECONDS));
+
+        try {
+            assertAll(
+                    () -> assertThrows(BulkheadFullException.class, () -> bulkhead.call(() -> "no")),
+                    () -> assertEquals(1.0, meterRegistry.get("bulkhead.saturation").tag("name", "prueba").gauge().value()),
+                    () -> assertEquals(1, meterRegistry.get("bulkhead.rejected").tag("name", "prueba").counter().count())
+            );
+        } finally {
+            salir.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void call_Excepcion_LiberaElPermiso() {
+        var bulkhead = new Bulkhead("prueba", 1, Duration.ZERO, meterRegistry);
+
+        assertThrows(IllegalStateException.class, () -> bulkhead.run(() -> {
+            throw new IllegalStateException();
+        }));
+        assertEquals(0, bulkhead.getActiveCalls());
+    }
+
+    @Test
+    void bulkheads_SeDeclaranEnLaConfiguracion() {
+        var environment = new MockEnvironment()
+                .withProperty("bulkheads.albumes-lectura.max-concurrent-calls", "10")
+                .withProperty("bulkheads.albumes-lectura.max-wait", "50")
+                .withProperty("bulkheads.albumes-escritura.max-concurrent-calls", "2")
+                .withProperty("bulkheads.auth.max-concurrent-calls", "3")
+                .withProperty("bulkheads.auth.max-wait", "1s");
+
+        var bulkheads = new Bulkheads(environment, meterRegistry);
+
+        assertAll(
+                () -> assertEquals("ok", bulkheads.call(Bulkheads.ALBUMES_LECTURA, () -> "ok")),
+                () -> assertEquals(Bulkheads.AUTH, bulkheads.get(Bulkheads.AUTH).getName()),
+                () -> assertThrows(IllegalStateException.class, () -> bulkheads.get("otro"))
+        );
+    }
+
+    @Test
+    void bulkheads_FaltaUnoUsadoPorLosControladores_NoArranca() {
+        var environment = new MockEnvironment()
+                .withProperty("bulkheads.albumes-lectura.max-concurrent-calls", "10");
+
+        assertThrows(IllegalStateException.class, () -> new Bulkheads(environment, meterRegistry));
+    }
+
+    @Test
+    void bulkheads_ConfiguracionDirecta() {
+        var bulkheads = new Bulkheads(Map.of("x", new Bulkheads.Config(1, null)), meterRegistry);
+
+        assertEquals(0, bulkheads.get("x").getActiveCalls());
+    }
+}
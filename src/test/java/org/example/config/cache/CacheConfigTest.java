@@ -0,0 +1,72 @@
+package org.example.config.cache;
+
+import org.example.Application;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = Application.class, properties = "spring.sql.init.mode=never")
+class CacheConfigTest {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        cache = cacheManager.getCache("artistas");
+        cache.clear();
+    }
+
+    @Test
+    void put_EnUnaTransaccion_SeGuardaTrasElCommit() {
+        transactionTemplate.executeWithoutResult(status -> {
+            cache.put(1L, "Queen");
+            assertNull(cache.get(1L));
+        });
+
+        assertEquals("Queen", cache.get(1L).get());
+    }
+
+    @Test
+    void put_TransaccionConRollback_NoSeGuarda() {
+        transactionTemplate.executeWithoutResult(status -> {
+            cache.put(1L, "Queen");
+            status.setRollbackOnly();
+        });
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void evict_EnUnaTransaccion_SeBorraTrasElCommit() {
+        cache.put(1L, "Queen");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            cache.evict(1L);
+            assertEquals("Queen", cache.get(1L).get());
+        });
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void put_SinTransaccion_SeGuardaYa() {
+        cache.put(1L, "Queen");
+
+        assertEquals("Queen", cache.get(1L).get());
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.albumes.dto.AlbumResponseDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DualKeyCaffeineCacheTest {
+    private final UUID uuid = UUID.fromString("57727bc2-0c1c-494e-bbaf-e952a778e478");
+    private final AlbumResponseDto album = AlbumResponseDto.builder().id(1L).titulo("Abbey Road").uuid(uuid).build();
+
+    private final DualKeyCaffeineCache cache = new DualKeyCaffeineCache("albumes", Caffeine.newBuilder().build(), true,
+            new SimpleMeterRegistry(), Caffeine.newBuilder().build(),
+            value -> ((AlbumResponseDto) value).getId(),
+            value -> ((AlbumResponseDto) value).getUuid(),
+            key -> key instanceof String || key instanceof UUID);
+
+    @Test
+    void put_SeObtienePorIdYPorUuid() {
+        cache.put(1L, album);
+
+        assertAll("put",
+                () -> assertEquals(album, cache.get(1L).get()),
+                () -> assertEquals(album, cache.get(uuid.toString()).get()),
+                () -> assertEquals(album, cache.get(uuid.toString().toUpperCase()).get())
+        );
+    }
+
+    @Test
+    void putPorUuid_ActualizadoPorId_UuidDevuelveElNuevo() {
+        cache.put(uuid.toString(), album);
+        var updated = AlbumResponseDto.builder().id(1L).titulo("Let It Be").uuid(uuid).build();
+
+        cache.put(1L, updated);
+
+        assertEquals("Let It Be", ((AlbumResponseDto) cache.get(uuid.toString()).get()).getTitulo());
+    }
+
+    @Test
+    void evictPorId_UuidTambienFalla() {
+        cache.put(uuid.toString(), album);
+
+        cache.evict(1L);
+
+        assertAll("evict",
+                () -> assertNull(cache.get(1L)),
+                () -> assertNull(cache.get(uuid.toString()))
+        );
+    }
+
+    @Test
+    void evictPorUuid_IdTambienFalla() {
+        cache.put(1L, album);
+
+        cache.evict(uuid.toString());
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void getPorUuid_EvictPorIdDuranteLaCarga_NoGuardaElValorAnterior() {
+        var cargado = cache.get(uuid.toString(), () -> {
+            // El álbum se actualiza y se invalida por id mientras se lee por uuid
+            cache.evict(1L);
+            return album;
+        });
+
+        assertAll("get",
+                () -> assertEquals(album, cargado),
+                () -> assertNull(cache.get(1L)),
+                () -> assertNull(cache.get(uuid.toString()))
+        );
+    }
+
+    @Test
+    void getPorUuid_SinCambios_GuardaPorAmbasClaves() {
+        cache.get(uuid.toString(), () -> album);
+
+        assertAll("get",
+                () -> assertEquals(album, cache.get(1L).get()),
+                () -> assertEquals(album, cache.get(uuid.toString()).get())
+        );
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.artistas.exceptions.ArtistaNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.interceptor.CacheOperationInvoker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightCaffeineCacheTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlightCaffeineCache cache = new SingleFlightCaffeineCache("artistas",
+            Caffeine.newBuilder().build(), true, meterRegistry,
+            Caffeine.newBuilder().build());
+
+    @Test
+    void get_FallosConcurrentes_CargaUnaSolaVez() throws Exception {
+        int callers = 8;
+        AtomicInteger cargas = new AtomicInteger();
+        CountDownLatch esperando = new CountDownLatch(1);
+        CountDownLatch llamando = new CountDownLatch(callers);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Future<String>> resultados = new ArrayList<>();
+        try {
+            for (int i = 0; i < callers; i++) {
+                resultados.add(executor.submit(() -> {
+                    llamando.countDown();
+                    return cache.get(1L, () -> {
+                        cargas.incrementAndGet();
+                        esperando.await(1, TimeUnit.SECONDS);
+                        return "Queen";
+                    });
+                }));
+            }
+            // Se da tiempo a que el resto de hilos se queden esperando la carga en curso
+            llamando.await(1, TimeUnit.SECONDS);
+            Thread.sleep(100);
+            esperando.countDown();
+            for (Future<String> resultado : resultados) {
+                assertEquals("Queen", resultado.get(1, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertAll("get",
+                () -> assertEquals(1, cargas.get()),
+                () -> assertEquals(1.0, meterRegistry.get("cache.loads.singleflight").counter().count()),
+                () -> assertEquals(callers - 1, meterRegistry.get("cache.loads.coalesced").counter().count()),
+                () -> assertEquals("Queen", cache.get(1L).get())
+        );
+    }
+
+    @Test
+    void get_EvictDuranteLaCarga_NoGuardaElValorAnterior() throws Exception {
+        CountDownLatch cargando = new CountDownLatch(1);
+        CountDownLatch terminar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> carga = executor.submit(() -> cache.get(4L, () -> {
+                cargando.countDown();
+                terminar.await(1, TimeUnit.SECONDS);
+                return "Queen antes del cambio";
+            }));
+            cargando.await(1, TimeUnit.SECONDS);
+            // Como un @CacheEvict de update: llega mientras la lectura anterior sigue cargando
+            Future<?> evict = executor.submit(() -> cache.evict(4L));
+            Thread.sleep(50);
+            terminar.countDown();
+
+            assertEquals("Queen antes del cambio", carga.get(1, TimeUnit.SECONDS));
+            evict.get(1, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertNull(cache.get(4L));
+    }
+
+    @Test
+    void get_FallaLaCarga_PropagaYNoGuarda() {
+        assertThrows(Cache.ValueRetrievalException.class, () -> cache.get(2L, () -> {
+            throw new IllegalStateException("no encontrado");
+        }));
+
+        assertNull(cache.get(2L));
+    }
+
+    @Test
+    void get_NoEncontrado_RespondeDeLaCacheNegativaHastaElPut() {
+        AtomicInteger cargas = new AtomicInteger();
+        Callable<String> loader = () -> {
+            cargas.incrementAndGet();
+            throw new CacheOperationInvoker.ThrowableWrapper(new ArtistaNotFoundException(3L));
+        };
+
+        assertThrows(Cache.ValueRetrievalException.class, () -> cache.get(3L, loader));
+        var ex = assertThrows(Cache.ValueRetrievalException.class, () -> cache.get(3L, loader));
+        cache.put(3L, "Queen");
+
+        assertAll("negative",
+                () -> assertEquals(1, cargas.get()),
+                () -> assertInstanceOf(ArtistaNotFoundException.class,
+                        ((CacheOperationInvoker.ThrowableWrapper) ex.getCause()).getOriginal()),
+                () -> assertEquals(1.0, meterRegistry.get("cache.negative.hits").counter().count()),
+                () -> assertEquals("Queen", cache.get(3L, loader))
+        );
+    }
+
+    @Test
+    void get_NoEncontradoYEvict_VuelveACargar() {
+        AtomicInteger cargas = new AtomicInteger();
+
+        assertThrows(Cache.ValueRetrievalException.class, () -> cache.get(5L, () -> {
+            cargas.incrementAndGet();
+            throw new CacheOperationInvoker.ThrowableWrapper(new ArtistaNotFoundException(5L));
+        }));
+        cache.evict(5L);
+
+        assertAll("negative",
+                () -> assertEquals("Queen", cache.get(5L, () -> {
+                    cargas.incrementAndGet();
+                    return "Queen";
+                })),
+                () -> assertEquals(2, cargas.get())
+        );
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.config.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Límite fijo de 2: una escritura ocupa su mitad y una lectura cabe en la otra
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter("v1", true, 2, 2, 2, 1.5, 0.5, meterRegistry);
+
+    private MockHttpServletResponse filtrar(String method, String uri) throws Exception {
+        var response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, uri), response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void doFilter_Saturado_RechazaPrimeroLasEscrituras() throws Exception {
+        var escritura = new AtomicReference<MockHttpServletResponse>();
+        var lectura = new AtomicReference<MockHttpServletResponse>();
+        var otraLectura = new AtomicReference<MockHttpServletResponse>();
+        var mientrasEscribe = new MockFilterChain(new HttpServlet() {
+        }, (request, response, chain) -> {
+            try {
+                escritura.set(filtrar("POST", "/api/v1/albumes"));
+                lectura.set(filtrar("GET", "/api/v1/albumes/1"));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        filter.doFilter(new MockHttpServletRequest("PUT", "/api/v1/albumes/1"), new MockHttpServletResponse(), mientrasEscribe);
+        otraLectura.set(filtrar("GET", "/api/v1/albumes"));
+
+        assertAll(
+                () -> assertEquals(503, escritura.get().getStatus()),
+                () -> assertEquals("1", escritura.get().getHeader("Retry-After")),
+                () -> assertEquals(200, lectura.get().getStatus()),
+                () -> assertEquals(200, otraLectura.get().getStatus()),
+                () -> assertEquals(1, meterRegistry.get("concurrency.rejected")
+                        .tag("route", "albumes").tag("priority", "write").counter().count()),
+                () -> assertEquals(2, meterRegistry.get("concurrency.limit").tag("route", "albumes").gauge().value())
+        );
+    }
+
+    @Test
+    void doFilter_CadaRecursoTieneSuLimite() throws Exception {
+        var artistas = new AtomicReference<MockHttpServletResponse>();
+        var mientrasEscribe = new MockFilterChain(new HttpServlet() {
+        }, (request, response, chain) -> {
+            try {
+                artistas.set(filtrar("POST", "/api/v1/artistas"));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/albumes"), new MockHttpServletResponse(), mientrasEscribe);
+
+        assertEquals(200, artistas.get().getStatus());
+    }
+
+    @Test
+    void doFilter_RutasSinLimite_NoSeFiltran() {
+        assertAll(
+                () -> assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("POST", "/v1/auth/signin"))),
+                () -> assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/v1/albumesx"))),
+                () -> assertFalse(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/v1/users/me/profile")))
+        );
+    }
+}
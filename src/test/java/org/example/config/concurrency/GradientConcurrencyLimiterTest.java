@@ -0,0 +1,88 @@
+package org.example.config.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradientConcurrencyLimiterTest {
+
+    private static final long MS = 1_000_000;
+
+    // Ocupa todo el límite y completa las peticiones con el tiempo de respuesta indicado
+    private static void saturar(GradientConcurrencyLimiter limiter, long rtt, int rondas) {
+        for (int i = 0; i < rondas; i++) {
+            int enCurso = 0;
+            while (limiter.tryAcquire(1.0)) {
+                enCurso++;
+            }
+            IntStream.range(0, enCurso).forEach(j -> limiter.release(rtt));
+        }
+    }
+
+    @Test
+    void tryAcquire_LasEscriturasSoloOcupanSuParte() {
+        var limiter = new GradientConcurrencyLimiter(10, 1, 100, 1.5);
+
+        long escrituras = IntStream.range(0, 20).filter(i -> limiter.tryAcquire(0.8)).count();
+        long lecturas = IntStream.range(0, 20).filter(i -> limiter.tryAcquire(1.0)).count();
+
+        assertAll(
+                () -> assertEquals(8, escrituras),
+                () -> assertEquals(2, lecturas),
+                () -> assertEquals(10, limiter.getInFlight())
+        );
+    }
+
+    @Test
+    void release_LatenciaEstable_ElLimiteCrece() {
+        var limiter = new GradientConcurrencyLimiter(10, 1, 100, 1.5);
+
+        saturar(limiter, 10 * MS, 20);
+
+        assertAll(
+                () -> assertTrue(limiter.getLimit() > 10, "Límite: " + limiter.getLimit()),
+                () -> assertTrue(limiter.getLimit() <= 100),
+                () -> assertEquals(0, limiter.getInFlight())
+        );
+    }
+
+    @Test
+    void release_LatenciaEnAumento_ElLimiteBaja() {
+        var limiter = new GradientConcurrencyLimiter(50, 5, 100, 1.5);
+        saturar(limiter, 10 * MS, 5);
+        int antes = limiter.getLimit();
+
+        // Una latencia alta sostenida acaba siendo la nueva habitual, así que se mira la reacción inmediata
+        saturar(limiter, 100 * MS, 2);
+
+        assertTrue(limiter.getLimit() < antes, "Antes: " + antes + ", después: " + limiter.getLimit());
+    }
+
+    @Test
+    void release_PocaCarga_ElLimiteNoCambia() {
+        var limiter = new GradientConcurrencyLimiter(20, 1, 100, 1.5);
+
+        IntStream.range(0, 100).forEach(i -> {
+            assertTrue(limiter.tryAcquire(1.0));
+            limiter.release(10 * MS);
+        });
+
+        assertEquals(20, limiter.getLimit());
+    }
+
+    @Test
+    void releaseWithoutSample_LiberaSinTocarElLimite() {
+        var limiter = new GradientConcurrencyLimiter(1, 1, 1, 1.5);
+        assertTrue(limiter.tryAcquire(1.0));
+        assertFalse(limiter.tryAcquire(1.0));
+
+        limiter.releaseWithoutSample();
+
+        assertAll(
+                () -> assertTrue(limiter.tryAcquire(1.0)),
+                () -> assertEquals(1, limiter.getLimit())
+        );
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.config.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RateLimitFilter("v1", true, 1, 0.01, 2, 0.01, 1, 0.01, 0, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        filter.destroy();
+    }
+
+    private MockHttpServletResponse filtrar(String method, String uri, String ip) throws Exception {
+        var request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(ip);
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void doFilter_SuperaElLimite_Devuelve429ConRetryAfter() throws Exception {
+        filtrar("GET", "/api/v1/albumes", "10.0.0.1");
+        filtrar("GET", "/api/v1/albumes", "10.0.0.1");
+
+        var response = filtrar("GET", "/api/v1/albumes", "10.0.0.1");
+
+        assertAll(
+                () -> assertEquals(429, response.getStatus()),
+                () -> assertEquals("100", response.getHeader("Retry-After")),
+                () -> assertEquals(1, meterRegistry.get("ratelimit.rejected").tag("group", "read").counter().count())
+        );
+    }
+
+    @Test
+    void doFilter_GruposYClavesIndependientes() throws Exception {
+        filtrar("POST", "/v1/auth/signin", "10.0.0.1");
+
+        assertAll(
+                () -> assertEquals(429, filtrar("POST", "/v1/auth/signin", "10.0.0.1").getStatus()),
+                () -> assertEquals(200, filtrar("POST", "/v1/auth/signin", "10.0.0.2").getStatus()),
+                () -> assertEquals(200, filtrar("POST", "/api/v1/albumes", "10.0.0.1").getStatus()),
+                () -> assertEquals(200, filtrar("GET", "/api/v1/albumes", "10.0.0.1").getStatus())
+        );
+    }
+
+    @Test
+    void doFilter_UsuarioAutenticado_CuboPorUsuarioYNoPorIp() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("pepe", null, List.of()));
+        filtrar("DELETE", "/api/v1/albumes/1", "10.0.0.1");
+
+        assertAll(
+                () -> assertEquals(429, filtrar("DELETE", "/api/v1/albumes/1", "10.0.0.2").getStatus()),
+                () -> {
+                    SecurityContextHolder.clearContext();
+                    assertEquals(200, filtrar("DELETE", "/api/v1/albumes/1", "10.0.0.1").getStatus());
+                }
+        );
+    }
+
+    @Test
+    void doFilter_RutasFueraDeLaApi_NoSeLimitan() throws Exception {
+        filtrar("GET", "/swagger-ui/index.html", "10.0.0.1");
+        filtrar("GET", "/swagger-ui/index.html", "10.0.0.1");
+
+        assertEquals(200, filtrar("GET", "/swagger-ui/index.html", "10.0.0.1").getStatus());
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.config.ratelimit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Coste del límite de peticiones en cada petición, que debe quedarse por debajo del microsegundo. Se mide con
+// una sola clave compartida por todos los hilos (el peor caso para el CAS) y con muchas claves distintas.
+// Se lanza desde el IDE con el main, o con: mvn test-compile exec:java -Dexec.classpathScope=test
+//   -Dexec.mainClass=org.example.config.ratelimit.TokenBucketRateLimiterBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class TokenBucketRateLimiterBenchmark {
+    private static final int CLAVES = 10_000;
+
+    private TokenBucketRateLimiter limiter;
+    private String[] claves;
+
+    @Setup
+    public void setUp() {
+        limiter = new TokenBucketRateLimiter(1_000_000, 1_000_000_000);
+        claves = new String[CLAVES];
+        for (int i = 0; i < CLAVES; i++) {
+            claves[i] = "ip:10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @Benchmark
+    public long unaClave() {
+        return limiter.tryAcquire(claves[0]);
+    }
+
+    @Benchmark
+    public long muchasClaves() {
+        return limiter.tryAcquire(claves[ThreadLocalRandom.current().nextInt(CLAVES)]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenBucketRateLimiterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
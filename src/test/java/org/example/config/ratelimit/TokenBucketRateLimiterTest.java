@@ -0,0 +1,73 @@
+package org.example.config.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    private static final long SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryAcquire_PermiteLaRafagaYDespuesRechaza() {
+        var limiter = new TokenBucketRateLimiter(3, 1);
+
+        assertAll(
+                () -> assertEquals(0, limiter.tryAcquire("a", 0)),
+                () -> assertEquals(0, limiter.tryAcquire("a", 0)),
+                () -> assertEquals(0, limiter.tryAcquire("a", 0)),
+                () -> assertEquals(SEGUNDO, limiter.tryAcquire("a", 0)),
+                () -> assertEquals(0, limiter.tryAcquire("b", 0))
+        );
+    }
+
+    @Test
+    void tryAcquire_RecuperaFichasConElTiempo() {
+        var limiter = new TokenBucketRateLimiter(2, 2);
+        limiter.tryAcquire("a", 0);
+        limiter.tryAcquire("a", 0);
+
+        assertAll(
+                () -> assertTrue(limiter.tryAcquire("a", 0) > 0),
+                () -> assertEquals(0, limiter.tryAcquire("a", SEGUNDO / 2)),
+                () -> assertTrue(limiter.tryAcquire("a", SEGUNDO / 2) > 0)
+        );
+    }
+
+    @Test
+    void tryAcquire_Concurrente_NoConcedeMasDeLaCapacidad() throws Exception {
+        var limiter = new TokenBucketRateLimiter(100, 0.001);
+        var concedidas = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        IntStream.range(0, 1000).forEach(i -> executor.execute(() -> {
+            if (limiter.tryAcquire("a") == 0) {
+                concedidas.incrementAndGet();
+            }
+        }));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, concedidas.get());
+    }
+
+    @Test
+    void evictIdle_SoloEliminaLosCubosLlenos() {
+        var limiter = new TokenBucketRateLimiter(2, 1);
+        limiter.tryAcquire("inactivo", 0);
+        limiter.tryAcquire("activo", 5 * SEGUNDO);
+
+        int eliminados = limiter.evictIdle(5 * SEGUNDO);
+
+        assertAll(
+                () -> assertEquals(1, eliminados),
+                () -> assertEquals(1, limiter.size())
+        );
+    }
+}
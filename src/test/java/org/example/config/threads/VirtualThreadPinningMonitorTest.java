@@ -0,0 +1,70 @@
+package org.example.config.threads;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Object cerrojo = new Object();
+    private VirtualThreadPinningMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        monitor = new VirtualThreadPinningMonitor(10, meterRegistry);
+        monitor.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.destroy();
+    }
+
+    @Test
+    void bloqueoDentroDeSynchronized_SeRegistraConSuOrigen() throws Exception {
+        Thread.ofVirtual().start(this::dormirConCerrojo).join();
+
+        // JFR entrega los eventos en bloques, aproximadamente cada segundo
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (monitor.getOrigenes().isEmpty() && System.nanoTime() < limite) {
+            Thread.sleep(100);
+        }
+
+        assertAll(
+                () -> assertEquals(1, meterRegistry.get("threads.virtual.pinned").timer().count()),
+                () -> assertTrue(monitor.getOrigenes().stream()
+                        .anyMatch(origen -> origen.startsWith(VirtualThreadPinningMonitorTest.class.getName())))
+        );
+    }
+
+    @Test
+    void bloqueoFueraDeSynchronized_NoSeRegistra() throws Exception {
+        Thread.ofVirtual().start(this::dormir).join();
+        Thread.sleep(2000);
+
+        assertAll(
+                () -> assertEquals(0, meterRegistry.get("threads.virtual.pinned").timer().count()),
+                () -> assertTrue(monitor.getOrigenes().isEmpty())
+        );
+    }
+
+    private void dormirConCerrojo() {
+        synchronized (cerrojo) {
+            dormir();
+        }
+    }
+
+    private void dormir() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.config.websockets;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificacionReplayTest {
+
+    private final NotificacionReplay replay = new NotificacionReplay(3);
+
+    private static void publicar(NotificacionReplay replay, int cuantas) {
+        for (int i = 0; i < cuantas; i++) {
+            long secuencia = replay.siguiente();
+            replay.agregar(secuencia, "m" + secuencia, new NotificacionDestino(secuencia, null, null));
+        }
+    }
+
+    private void publicar(int cuantas) {
+        publicar(replay, cuantas);
+    }
+
+    private List<String> mensajes(long desde) {
+        return replay.desde(replay.epoca(), desde).orElseThrow().stream().map(NotificacionReplay.Entrada::message).toList();
+    }
+
+    @Test
+    void desde_DentroDelBuffer_DevuelveElHueco() {
+        publicar(5);
+
+        assertAll(
+                () -> assertEquals(5, replay.ultima()),
+                () -> assertEquals(List.of("m3", "m4", "m5"), mensajes(2)),
+                () -> assertEquals(List.of("m5"), mensajes(4)),
+                () -> assertEquals(List.of(), mensajes(5))
+        );
+    }
+
+    @Test
+    void desde_HuecoSobrescrito_DevuelveVacio() {
+        publicar(5);
+
+        assertEquals(Optional.empty(), replay.desde(replay.epoca(), 1));
+    }
+
+    @Test
+    void desde_SecuenciaMayorQueLaUltima_DevuelveVacio() {
+        publicar(2);
+
+        assertEquals(Optional.empty(), replay.desde(replay.epoca(), 10));
+    }
+
+    @Test
+    void desde_EpocaAnteriorAlReinicio_DevuelveVacio() {
+        publicar(3);
+        String epocaAnterior = replay.epoca();
+        // Tras reiniciar, las secuencias vuelven a empezar y la 2 ya no es la misma notificación
+        var reiniciado = new NotificacionReplay(3);
+        publicar(reiniciado, 3);
+
+        assertAll(
+                () -> assertNotEquals(epocaAnterior, reiniciado.epoca()),
+                () -> assertEquals(Optional.empty(), reiniciado.desde(epocaAnterior, 2)),
+                () -> assertEquals(Optional.empty(), reiniciado.desde(null, 2)),
+                () -> assertEquals(1, reiniciado.desde(reiniciado.epoca(), 2).orElseThrow().size())
+        );
+    }
+}
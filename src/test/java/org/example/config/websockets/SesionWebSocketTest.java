@@ -0,0 +1,92 @@
+package org.example.config.websockets;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SesionWebSocketTest {
+
+    @Mock
+    private WebSocketSession session;
+
+    @Test
+    void enviar_ClienteRapido_RecibeEnOrden() throws Exception {
+        List<String> recibidos = new CopyOnWriteArrayList<>();
+        CountDownLatch hecho = new CountDownLatch(20);
+        when(session.isOpen()).thenReturn(true);
+        doAnswer(invocation -> {
+            recibidos.add(((TextMessage) invocation.getArgument(0)).getPayload());
+            hecho.countDown();
+            return null;
+        }).when(session).sendMessage(any());
+        var sesion = new SesionWebSocket(session, Executors.newVirtualThreadPerTaskExecutor(), 1024, 1000);
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(sesion.enviar(new TextMessage("m" + i)));
+        }
+
+        assertTrue(hecho.await(5, TimeUnit.SECONDS));
+        assertEquals(IntStream.range(0, 20).mapToObj(i -> "m" + i).toList(), recibidos);
+    }
+
+    @Test
+    void enviar_ClienteBloqueado_SeExpulsaAlSuperarElBuffer() throws Exception {
+        CountDownLatch bloqueo = new CountDownLatch(1);
+        CountDownLatch empezado = new CountDownLatch(1);
+        when(session.isOpen()).thenReturn(true);
+        doAnswer(invocation -> {
+            empezado.countDown();
+            bloqueo.await();
+            return null;
+        }).when(session).sendMessage(any(WebSocketMessage.class));
+        var sesion = new SesionWebSocket(session, Executors.newVirtualThreadPerTaskExecutor(), 10, 60_000);
+
+        assertTrue(sesion.enviar(new TextMessage("12345")));
+        assertTrue(empezado.await(5, TimeUnit.SECONDS));
+        assertTrue(sesion.enviar(new TextMessage("12345")));
+        boolean resultado = sesion.enviar(new TextMessage("12345"));
+        bloqueo.countDown();
+
+        assertFalse(resultado);
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    @Test
+    void enviar_EnvioBloqueadoDemasiadoTiempo_SeExpulsa() throws Exception {
+        CountDownLatch bloqueo = new CountDownLatch(1);
+        CountDownLatch empezado = new CountDownLatch(1);
+        when(session.isOpen()).thenReturn(true);
+        doAnswer(invocation -> {
+            empezado.countDown();
+            bloqueo.await();
+            return null;
+        }).when(session).sendMessage(any(WebSocketMessage.class));
+        var sesion = new SesionWebSocket(session, Executors.newVirtualThreadPerTaskExecutor(), 1024, 10);
+
+        assertTrue(sesion.enviar(new TextMessage("a")));
+        assertTrue(empezado.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        boolean resultado = sesion.enviar(new TextMessage("b"));
+        bloqueo.countDown();
+
+        assertFalse(resultado);
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.config.websockets;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuscripcionIndexTest {
+
+    private final SuscripcionIndex index = new SuscripcionIndex();
+
+    @Test
+    void destinatarios_SinFiltro_RecibeTodo() {
+        index.suscribir("s1", new Suscripcion(null, null, null, null, null, null));
+
+        assertEquals(Set.of("s1"), index.destinatarios(new NotificacionDestino(1L, "Rock", 2L)));
+    }
+
+    @Test
+    void destinatarios_PorGeneroArtistaYAlbum() {
+        index.suscribir("genero", new Suscripcion(Set.of(" rock "), null, null, null, null, null));
+        index.suscribir("artista", new Suscripcion(null, Set.of(2L), null, null, null, null));
+        index.suscribir("album", new Suscripcion(null, null, Set.of(1L), null, null, null));
+
+        assertAll(
+                () -> assertEquals(Set.of("genero", "artista", "album"), index.destinatarios(new NotificacionDestino(1L, "Rock", 2L))),
+                () -> assertEquals(Set.of("genero"), index.destinatarios(new NotificacionDestino(3L, "ROCK", 4L))),
+                () -> assertEquals(Set.of(), index.destinatarios(new NotificacionDestino(3L, "Pop", null)))
+        );
+    }
+
+    @Test
+    void suscribir_ReemplazaLaSuscripcionAnterior() {
+        index.suscribir("s1", new Suscripcion(Set.of("Rock"), null, null, null, null, null));
+        index.suscribir("s1", new Suscripcion(Set.of("Pop"), null, null, null, null, null));
+
+        assertAll(
+                () -> assertEquals(Set.of(), index.destinatarios(new NotificacionDestino(1L, "Rock", null))),
+                () -> assertEquals(Set.of("s1"), index.destinatarios(new NotificacionDestino(1L, "Pop", null)))
+        );
+    }
+
+    @Test
+    void eliminar_QuitaLaSesionDeTodosLosFiltros() {
+        index.suscribir("s1", new Suscripcion(Set.of("Rock"), Set.of(2L), Set.of(1L), null, null, null));
+
+        index.eliminar("s1");
+
+        assertEquals(Set.of(), index.destinatarios(new NotificacionDestino(1L, "Rock", 2L)));
+    }
+}
@@ -0,0 +1,167 @@
+package org.example.config.websockets;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.websockets.notifications.models.Notificacion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebSocketHandlerTest {
+
+    @Mock
+    private WebSocketSession enLote;
+
+    @Mock
+    private WebSocketSession unoAUno;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private WebSocketHandler handler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Ventana muy larga para lanzar el envío a mano desde el test
+        handler = new WebSocketHandler("Albumes", 1024 * 1024, 5000, 60_000, 4,
+                Executors.newVirtualThreadPerTaskExecutor(), new ObjectMapper(), meterRegistry);
+        when(enLote.getId()).thenReturn("lote");
+        when(enLote.isOpen()).thenReturn(true);
+        when(unoAUno.getId()).thenReturn("uno");
+        when(unoAUno.isOpen()).thenReturn(true);
+        handler.afterConnectionEstablished(enLote);
+        handler.afterConnectionEstablished(unoAUno);
+        handler.handleMessage(enLote, new TextMessage("{\"lote\":true}"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        handler.destroy();
+    }
+
+    // Un record se serializa siempre en el mismo orden, a diferencia de Map.of
+    private record Dato(long id, int v) {
+    }
+
+    private static Notificacion<Dato> notificacion(long id, int version) {
+        return new Notificacion<>("ALBUMES", Notificacion.Tipo.UPDATE, new Dato(id, version), "2024-01-01T00:00");
+    }
+
+    private String json(long id, int version, long secuencia) {
+        return "{\"entity\":\"ALBUMES\",\"type\":\"UPDATE\",\"data\":{\"id\":" + id + ",\"v\":" + version
+                + "},\"createdAt\":\"2024-01-01T00:00\",\"secuencia\":" + secuencia
+                + ",\"epoca\":\"" + handler.epoca() + "\"}";
+    }
+
+    private TextMessage reanudar(String filtros, long desde, String epoca) {
+        return new TextMessage("{" + filtros + "\"desde\":" + desde + ",\"epoca\":\"" + epoca + "\"}");
+    }
+
+    private List<String> recibidos(WebSocketSession session, int veces) throws Exception {
+        var captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, timeout(2000).times(veces)).sendMessage(captor.capture());
+        // El primer mensaje es siempre el saludo
+        return captor.getAllValues().stream().skip(1).map(TextMessage::getPayload).toList();
+    }
+
+    @Test
+    void sendMessage_VentanaDeAgrupacion_UltimoEstadoPorAlbumEnUnSoloMensaje() throws Exception {
+        handler.sendMessage(notificacion(1, 1), new NotificacionDestino(1L, "Rock", 1L));
+        handler.sendMessage(notificacion(2, 1), new NotificacionDestino(2L, "Pop", 1L));
+        handler.sendMessage(notificacion(1, 2), new NotificacionDestino(1L, "Rock", 1L));
+        handler.flush();
+
+        var lote = recibidos(enLote, 2);
+        var uno = recibidos(unoAUno, 4);
+
+        assertAll(
+                () -> assertEquals(List.of("[" + json(2, 1, 2) + "," + json(1, 2, 3) + "]"), lote),
+                () -> assertEquals(List.of(json(1, 1, 1), json(2, 1, 2), json(1, 2, 3)), uno),
+                () -> assertEquals(1.0, meterRegistry.get("websockets.notifications.coalesced").counter().count())
+        );
+    }
+
+    @Test
+    void sendMessage_SesionSinSuscripcion_UnaNotificacionPorMensajeAunqueHayaVentana() throws Exception {
+        // Un cliente que nunca envía suscripción sigue recibiendo objetos sueltos, no arrays
+        WebSocketSession nueva = mock(WebSocketSession.class);
+        when(nueva.getId()).thenReturn("nueva");
+        when(nueva.isOpen()).thenReturn(true);
+        handler.afterConnectionEstablished(nueva);
+
+        handler.sendMessage(notificacion(1, 1), new NotificacionDestino(1L, "Rock", 1L));
+        handler.sendMessage(notificacion(2, 1), new NotificacionDestino(2L, "Pop", 1L));
+        handler.flush();
+
+        assertEquals(List.of(json(1, 1, 1), json(2, 1, 2)), recibidos(nueva, 3));
+    }
+
+    @Test
+    void flush_AlbumCambiaDeGenero_AvisaTambienAlGeneroAnterior() throws Exception {
+        handler.handleMessage(enLote, new TextMessage("{\"lote\":true,\"generos\":[\"Rock\"]}"));
+
+        handler.sendMessage(notificacion(1, 1), new NotificacionDestino(1L, "Rock", 1L));
+        handler.sendMessage(notificacion(1, 2), new NotificacionDestino(1L, "Pop", 1L));
+        handler.flush();
+
+        assertEquals(List.of("[" + json(1, 2, 2) + "]"), recibidos(enLote, 2));
+    }
+
+    @Test
+    void handleMessage_Desde_ReenviaSoloLoPerdidoQueCumpleElFiltro() throws Exception {
+        handler.sendMessage(notificacion(1, 1), new NotificacionDestino(1L, "Rock", 1L));
+        handler.sendMessage(notificacion(2, 1), new NotificacionDestino(2L, "Pop", 1L));
+        handler.sendMessage(notificacion(3, 1), new NotificacionDestino(3L, "Rock", 1L));
+
+        handler.handleMessage(unoAUno, reanudar("\"lote\":false,\"generos\":[\"Rock\"],", 1, handler.epoca()));
+
+        assertEquals(List.of(json(1, 1, 1), json(2, 1, 2), json(3, 1, 3), json(3, 1, 3)), recibidos(unoAUno, 5));
+    }
+
+    @Test
+    void handleMessage_DesdeFueraDelBuffer_PideVolverAListar() throws Exception {
+        for (int i = 1; i <= 6; i++) {
+            handler.sendMessage(notificacion(i, 1), new NotificacionDestino((long) i, "Rock", 1L));
+        }
+
+        handler.handleMessage(unoAUno, reanudar("\"lote\":false,", 1, handler.epoca()));
+
+        assertEquals("{\"type\":\"RESYNC\",\"secuencia\":6,\"epoca\":\"" + handler.epoca() + "\"}", recibidos(unoAUno, 8).get(6));
+    }
+
+    @Test
+    void handleMessage_DesdeAntesDeReiniciar_PideVolverAListarAunqueLaSecuenciaExista() throws Exception {
+        handler.sendMessage(notificacion(1, 1), new NotificacionDestino(1L, "Rock", 1L));
+        handler.sendMessage(notificacion(2, 1), new NotificacionDestino(2L, "Rock", 1L));
+        String epocaAnterior = handler.epoca();
+        recibidos(unoAUno, 3);
+        handler.destroy();
+
+        // El servidor arranca de nuevo y vuelve a publicar desde la secuencia 1
+        handler = new WebSocketHandler("Albumes", 1024 * 1024, 5000, 60_000, 4,
+                Executors.newVirtualThreadPerTaskExecutor(), new ObjectMapper(), new SimpleMeterRegistry());
+        clearInvocations(unoAUno);
+        handler.afterConnectionEstablished(unoAUno);
+        for (int i = 1; i <= 3; i++) {
+            handler.sendMessage(notificacion(i, 2), new NotificacionDestino((long) i, "Rock", 1L));
+        }
+        handler.handleMessage(unoAUno, reanudar("\"lote\":false,", 1, epocaAnterior));
+
+        assertAll(
+                () -> assertNotEquals(epocaAnterior, handler.epoca()),
+                () -> assertEquals("{\"type\":\"RESYNC\",\"secuencia\":3,\"epoca\":\"" + handler.epoca() + "\"}",
+                        recibidos(unoAUno, 5).get(3))
+        );
+    }
+}
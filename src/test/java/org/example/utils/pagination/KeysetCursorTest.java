@@ -0,0 +1,48 @@
+package org.example.utils.pagination;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    @Test
+    void encodeYDecode_DevuelveElMismoCursor() {
+        var cursor = new KeysetCursor("titulo", "asc", 7L, "Abbey\nRoad");
+
+        var decoded = KeysetCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void decode_NoValido_LanzaIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("no-es-un-cursor"));
+    }
+
+    @Test
+    void next_ConMasResultados_DevuelveElCursorDelUltimo() {
+        Window<String> window = Window.from(List.of("a", "b"),
+                i -> ScrollPosition.forward(Map.of("id", (long) i + 1, "titulo", "t" + i)), true);
+
+        var next = KeysetCursor.next(window, "titulo", "asc");
+
+        assertAll("next",
+                () -> assertTrue(next.isPresent()),
+                () -> assertEquals(2L, next.get().id()),
+                () -> assertEquals("t1", next.get().value())
+        );
+    }
+
+    @Test
+    void next_UltimaVentana_DevuelveVacio() {
+        Window<String> window = Window.from(List.of("a"), i -> ScrollPosition.forward(Map.of("id", 1L)), false);
+
+        assertTrue(KeysetCursor.next(window, "id", "asc").isEmpty());
+    }
+}
@@ -0,0 +1,172 @@
+package org.example.websockets.notifications.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.config.websockets.NotificacionDestino;
+import org.example.config.websockets.WebSocketHandler;
+import org.example.websockets.notifications.dto.AlbumNotificationResponse;
+import org.example.websockets.notifications.mappers.AlbumNotificationMapper;
+import org.example.websockets.notifications.models.AlbumOutbox;
+import org.example.websockets.notifications.models.Notificacion;
+import org.example.websockets.notifications.repositories.AlbumOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AlbumOutboxRelayTest {
+
+    @Mock
+    private AlbumOutboxRepository albumOutboxRepository;
+
+    @Mock
+    private WebSocketHandler webSocketHandler;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AlbumOutboxRelay relay;
+
+    private final AlbumOutbox creado = cambio(1L, Notificacion.Tipo.CREATE, 10L, 0L);
+    private final AlbumOutbox borrado = cambio(2L, Notificacion.Tipo.DELETE, 11L, 3L);
+
+    private static AlbumOutbox cambio(Long id, Notificacion.Tipo tipo, Long albumId, Long albumVersion) {
+        return AlbumOutbox.builder()
+                .id(id)
+                .tipo(tipo)
+                .albumId(albumId)
+                .albumVersion(albumVersion)
+                .titulo("Motomami")
+                .genero("Pop")
+                .artistaId(1L)
+                .artista("Rosalía")
+                .precio(19.99)
+                .albumCreatedAt(LocalDateTime.now())
+                .albumUpdatedAt(LocalDateTime.now())
+                .isDeleted(false)
+                .build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        relay = new AlbumOutboxRelay(albumOutboxRepository, new AlbumNotificationMapper(), webSocketHandler, 2, 1000, 3, meterRegistry);
+    }
+
+    @Test
+    void enviarLote_EnviaEnOrdenYBorraElLote() throws IOException {
+        when(albumOutboxRepository.findByOrderByIdAsc(Limit.of(2))).thenReturn(List.of(creado, borrado));
+
+        int enviadas = relay.enviarLote();
+
+        InOrder inOrder = inOrder(webSocketHandler, albumOutboxRepository);
+        inOrder.verify(webSocketHandler).sendMessage(
+                argThat(n -> n.getType() == Notificacion.Tipo.CREATE), eq(new NotificacionDestino(10L, "Pop", 1L)));
+        inOrder.verify(webSocketHandler).sendMessage(
+                argThat(n -> n.getType() == Notificacion.Tipo.DELETE
+                        && ((AlbumNotificationResponse) n.getData()).getVersion() == 3L), eq(new NotificacionDestino(11L, "Pop", 1L)));
+        inOrder.verify(albumOutboxRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        assertAll(
+                () -> assertEquals(2, enviadas),
+                () -> assertEquals(2.0, meterRegistry.get("websockets.outbox.relayed").counter().count()),
+                () -> assertEquals(1, meterRegistry.get("websockets.outbox.relay.latency").timer().count())
+        );
+    }
+
+    @Test
+    void enviarLote_VersionNoPosteriorALaEnviada_NoLaEnviaPeroLaBorra() throws IOException {
+        var nueva = cambio(3L, Notificacion.Tipo.UPDATE, 10L, 2L);
+        var antigua = cambio(4L, Notificacion.Tipo.UPDATE, 10L, 1L);
+        when(albumOutboxRepository.findByOrderByIdAsc(Limit.of(2))).thenReturn(List.of(nueva, antigua));
+
+        relay.enviarLote();
+
+        verify(webSocketHandler, times(1)).sendMessage(any(), any());
+        verify(webSocketHandler).sendMessage(argThat(n -> ((AlbumNotificationResponse) n.getData()).getVersion() == 2L), any());
+        verify(albumOutboxRepository).deleteAllByIdInBatch(List.of(3L, 4L));
+        assertEquals(1.0, meterRegistry.get("websockets.outbox.stale").counter().count());
+    }
+
+    @Test
+    void enviarLote_MismoLoteReenviado_NoRepiteLasYaEnviadas() throws IOException {
+        when(albumOutboxRepository.findByOrderByIdAsc(Limit.of(2))).thenReturn(List.of(creado, borrado));
+        doNothing().doThrow(new IllegalStateException("caído")).doNothing().when(webSocketHandler).sendMessage(any(), any());
+
+        assertThrows(IllegalStateException.class, () -> relay.enviarLote());
+        relay.enviarLote();
+
+        // El CREATE ya salió en el primer intento; en el segundo solo se envía el DELETE
+        verify(webSocketHandler, times(1)).sendMessage(argThat(n -> n.getType() == Notificacion.Tipo.CREATE), any());
+        verify(webSocketHandler, times(2)).sendMessage(argThat(n -> n.getType() == Notificacion.Tipo.DELETE), any());
+        verify(albumOutboxRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    void enviarLote_SinCambios_NoBorraNada() {
+        when(albumOutboxRepository.findByOrderByIdAsc(Limit.of(2))).thenReturn(List.of());
+
+        assertEquals(0, relay.enviarLote());
+        verify(albumOutboxRepository, never()).deleteAllByIdInBatch(any());
+        verifyNoInteractions(webSocketHandler);
+    }
+
+    @Test
+    void enviarLote_FalloDelHandler_NoBorraElLote() throws IOException {
+        when(albumOutboxRepository.findByOrderByIdAsc(Limit.of(2))).thenReturn(List.of(creado, borrado));
+        doThrow(new IllegalStateException("caído")).when(webSocketHandler).sendMessage(any(), any());
+
+        assertThrows(IllegalStateException.class, () -> relay.enviarLote());
+        verify(albumOutboxRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void acotar_PorDebajoDelMaximo_SoloActualizaLaProfundidad() {
+        when(albumOutboxRepository.count()).thenReturn(3L);
+
+        relay.acotar();
+
+        verify(albumOutboxRepository, never()).deleteSuperados();
+        verify(albumOutboxRepository, never()).deleteAllByIdInBatch(any());
+        assertEquals(3.0, meterRegistry.get("websockets.outbox.depth").gauge().value());
+    }
+
+    @Test
+    void acotar_PorEncimaDelMaximo_AgrupaYDescartaLosMasAntiguos() {
+        when(albumOutboxRepository.count()).thenReturn(10L);
+        when(albumOutboxRepository.deleteSuperados()).thenReturn(5);
+        when(albumOutboxRepository.findIdsByOrderByIdAsc(Limit.of(2))).thenReturn(List.of(1L, 2L));
+
+        relay.acotar();
+
+        verify(albumOutboxRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        assertAll(
+                () -> assertEquals(5.0, meterRegistry.get("websockets.outbox.coalesced").counter().count()),
+                () -> assertEquals(2.0, meterRegistry.get("websockets.outbox.dropped").counter().count()),
+                () -> assertEquals(3.0, meterRegistry.get("websockets.outbox.depth").gauge().value())
+        );
+    }
+
+    @Test
+    void acotar_AgruparBasta_NoDescartaNada() {
+        when(albumOutboxRepository.count()).thenReturn(6L);
+        when(albumOutboxRepository.deleteSuperados()).thenReturn(4);
+
+        relay.acotar();
+
+        verify(albumOutboxRepository, never()).findIdsByOrderByIdAsc(any());
+        assertAll(
+                () -> assertEquals(0.0, meterRegistry.get("websockets.outbox.dropped").counter().count()),
+                () -> assertEquals(2.0, meterRegistry.get("websockets.outbox.depth").gauge().value())
+        );
+    }
+}